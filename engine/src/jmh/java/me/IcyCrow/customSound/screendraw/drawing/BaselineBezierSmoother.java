@@ -3,13 +3,13 @@ package me.IcyCrow.customSound.screendraw.drawing;
 import java.util.ArrayList;
 import java.util.List;
 
-public class BezierSmoother {
+public class BaselineBezierSmoother {
     private static final int DEFAULT_SEGMENTS = 30;
 
 
-    public static Stroke smoothStroke(List<Point> controlPoints, BrushSettings brushSettings) {
+    public static BaselineStroke smoothStroke(List<Point> controlPoints, BrushSettings brushSettings) {
         if (controlPoints.size() < 3) {
-            Stroke stroke = new Stroke();
+            BaselineStroke stroke = new BaselineStroke();
             for (Point point : controlPoints) {
                 stroke.addPoint(new DrawPoint((int) point.x(), (int) point.y(),
                         brushSettings.getEffectiveColor(), brushSettings.getLineWidth()));
@@ -18,7 +18,7 @@ public class BezierSmoother {
         }
 
         List<Point> smoothedPoints = createBezierCurve(controlPoints);
-        Stroke smoothedStroke = new Stroke();
+        BaselineStroke smoothedStroke = new BaselineStroke();
 
         if (!smoothedPoints.isEmpty()) {
 
@@ -32,7 +32,7 @@ public class BezierSmoother {
                 int newX = (int) currentPoint.x();
                 int newY = (int) currentPoint.y();
 
-                List<DrawPoint> interpolatedPoints = Stroke.interpolatePoints(
+                List<DrawPoint> interpolatedPoints = BaselineStroke.interpolatePoints(
                         lastDrawPoint.x(), lastDrawPoint.y(), newX, newY,
                         brushSettings.getEffectiveColor(), brushSettings.getLineWidth()
                 );
@@ -68,8 +68,8 @@ public class BezierSmoother {
     private static List<Point> generateQuadraticBezier(Point p0, Point p1, Point p2) {
         List<Point> points = new ArrayList<>();
 
-        for (int i = 0; i <= BezierSmoother.DEFAULT_SEGMENTS; i++) {
-            float t = (float) i / BezierSmoother.DEFAULT_SEGMENTS;
+        for (int i = 0; i <= BaselineBezierSmoother.DEFAULT_SEGMENTS; i++) {
+            float t = (float) i / BaselineBezierSmoother.DEFAULT_SEGMENTS;
 
             float x = (1 - t) * (1 - t) * p0.x() + 2 * (1 - t) * t * p1.x() + t * t * p2.x();
             float y = (1 - t) * (1 - t) * p0.y() + 2 * (1 - t) * t * p1.y() + t * t * p2.y();
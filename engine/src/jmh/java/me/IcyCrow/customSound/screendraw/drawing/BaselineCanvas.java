@@ -0,0 +1,85 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+final class BaselineCanvas {
+    private final List<BaselineStroke> strokes = new ArrayList<>();
+    private final BaselineHistory history = new BaselineHistory();
+    private final BrushSettings brushSettings = new BrushSettings();
+
+    private boolean isDrawing;
+    private int lastMouseX = -1;
+    private int lastMouseY = -1;
+
+    BaselineCanvas(List<BaselineStroke> strokes) {
+        this.strokes.addAll(strokes);
+        brushSettings.setToolMode(ToolMode.ERASER);
+    }
+
+    void startStroke(int mouseX, int mouseY) {
+        if (isDrawing) {
+            return;
+        }
+
+        history.saveState(strokes);
+        isDrawing = true;
+        lastMouseX = mouseX;
+        lastMouseY = mouseY;
+        eraseAt(mouseX, mouseY);
+    }
+
+    void continueStroke(int mouseX, int mouseY) {
+        if (!isDrawing) {
+            return;
+        }
+
+        eraseBetween(lastMouseX, lastMouseY, mouseX, mouseY);
+        lastMouseX = mouseX;
+        lastMouseY = mouseY;
+    }
+
+    void endStroke() {
+        if (!isDrawing) {
+            return;
+        }
+
+        isDrawing = false;
+        lastMouseX = -1;
+        lastMouseY = -1;
+    }
+
+    boolean undo() {
+        if (!history.canUndo()) {
+            return false;
+        }
+        List<BaselineStroke> newStrokes = history.undo(strokes);
+        strokes.clear();
+        strokes.addAll(newStrokes);
+        return true;
+    }
+
+    private void eraseBetween(int x1, int y1, int x2, int y2) {
+        List<DrawPoint> points = BaselineStroke.interpolatePoints(
+                x1, y1, x2, y2, 0xFFFFFFFF, Math.max(1.0f, brushSettings.getLineWidth())
+        );
+        for (DrawPoint point : points) {
+            eraseAt(point.x(), point.y());
+        }
+    }
+
+    private void eraseAt(int mouseX, int mouseY) {
+        float radius = Math.max(2.0f, brushSettings.getLineWidth());
+        Iterator<BaselineStroke> iterator = strokes.iterator();
+        while (iterator.hasNext()) {
+            BaselineStroke stroke = iterator.next();
+            stroke.erasePointsNear(mouseX, mouseY, radius);
+            if (stroke.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    BrushSettings getBrushSettings() { return brushSettings; }
+}
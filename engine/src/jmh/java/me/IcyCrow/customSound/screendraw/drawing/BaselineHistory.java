@@ -5,12 +5,12 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 
-public class DrawingHistory {
-    private final Deque<List<Stroke>> undoHistory = new ArrayDeque<>();
-    private final Deque<List<Stroke>> redoHistory = new ArrayDeque<>();
+public class BaselineHistory {
+    private final Deque<List<BaselineStroke>> undoHistory = new ArrayDeque<>();
+    private final Deque<List<BaselineStroke>> redoHistory = new ArrayDeque<>();
     private static final int MAX_HISTORY = 50;
 
-    public void saveState(List<Stroke> currentStrokes) {
+    public void saveState(List<BaselineStroke> currentStrokes) {
         undoHistory.addLast(copyStrokes(currentStrokes));
 
         if (undoHistory.size() > MAX_HISTORY) {
@@ -20,7 +20,7 @@ public class DrawingHistory {
         redoHistory.clear();
     }
 
-    public List<Stroke> undo(List<Stroke> currentStrokes) {
+    public List<BaselineStroke> undo(List<BaselineStroke> currentStrokes) {
         if (!undoHistory.isEmpty()) {
             redoHistory.addLast(copyStrokes(currentStrokes));
             return undoHistory.removeLast();
@@ -28,7 +28,7 @@ public class DrawingHistory {
         return currentStrokes;
     }
 
-    public List<Stroke> redo(List<Stroke> currentStrokes) {
+    public List<BaselineStroke> redo(List<BaselineStroke> currentStrokes) {
         if (!redoHistory.isEmpty()) {
             undoHistory.addLast(copyStrokes(currentStrokes));
             return redoHistory.removeLast();
@@ -57,9 +57,9 @@ public class DrawingHistory {
         redoHistory.clear();
     }
 
-    private static List<Stroke> copyStrokes(List<Stroke> strokes) {
-        List<Stroke> stateCopy = new ArrayList<>();
-        for (Stroke stroke : strokes) {
+    private static List<BaselineStroke> copyStrokes(List<BaselineStroke> strokes) {
+        List<BaselineStroke> stateCopy = new ArrayList<>();
+        for (BaselineStroke stroke : strokes) {
             stateCopy.add(stroke.copy());
         }
         return stateCopy;
@@ -5,16 +5,16 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
-public class Stroke {
+public class BaselineStroke {
     private final List<DrawPoint> points;
     private boolean completed;
 
-    public Stroke() {
+    public BaselineStroke() {
         this.points = new ArrayList<>();
         this.completed = false;
     }
 
-    public Stroke(List<DrawPoint> points) {
+    public BaselineStroke(List<DrawPoint> points) {
         this.points = new ArrayList<>(points);
         this.completed = true;
     }
@@ -94,14 +94,14 @@ public class Stroke {
         return points.isEmpty() ? null : points.get(0);
     }
 
-    public Stroke copy() {
-        Stroke copy = new Stroke();
+    public BaselineStroke copy() {
+        BaselineStroke copy = new BaselineStroke();
         copy.points.addAll(this.points);
         copy.completed = this.completed;
         return copy;
     }
 
-    public static Stroke completed(List<DrawPoint> points) {
-        return new Stroke(points);
+    public static BaselineStroke completed(List<DrawPoint> points) {
+        return new BaselineStroke(points);
     }
 }
@@ -0,0 +1,86 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EraseBenchmark {
+    private static final int DRAG_SAMPLES = 32;
+
+    @Param({"10000", "100000", "500000", "1000000"})
+    public int canvasPoints;
+
+    private DrawingCanvas canvas;
+    private BaselineCanvas baseline;
+    private Stroke longStroke;
+    private BaselineStroke longBaselineStroke;
+    private float eraseX;
+    private float eraseY;
+
+    @Setup
+    public void setUp() throws Exception {
+        canvas = new DrawingCanvas(new DrawingHistory(DrawingHistory.DEFAULT_BYTE_BUDGET,
+                Files.createTempDirectory("screendraw-bench")));
+        List<Stroke> strokes = Traces.strokes(canvasPoints, 500, 7L);
+        canvas.replaceStrokes(strokes, false);
+        canvas.setToolMode(ToolMode.ERASER);
+        canvas.getBrushSettings().setLineWidth(12.0f);
+        baseline = new BaselineCanvas(Traces.baselineStrokes(strokes));
+        baseline.getBrushSettings().setLineWidth(12.0f);
+
+        longStroke = Traces.rawStroke(Traces.handwriting(Math.min(canvasPoints, 100_000), 11L));
+        eraseX = longStroke.getX(longStroke.getPointCount() / 2);
+        eraseY = longStroke.getY(longStroke.getPointCount() / 2);
+        longBaselineStroke = Traces.baselineStroke(longStroke);
+    }
+
+    @TearDown
+    public void tearDown() {
+        canvas.getHistory().close();
+    }
+
+    @Benchmark
+    public Stroke strokeEraseCapsule() {
+        return longStroke.erasedCapsule(eraseX, eraseY, eraseX, eraseY, 8.0f);
+    }
+
+    @Benchmark
+    public BaselineStroke baselineStrokeErasePointsNear() {
+        BaselineStroke copy = longBaselineStroke.copy();
+        copy.erasePointsNear(Math.round(eraseX), Math.round(eraseY), 8.0f);
+        return copy;
+    }
+
+    @Benchmark
+    public boolean baselineEraserDragAndUndo() {
+        baseline.startStroke(200, 540);
+        for (int i = 1; i <= DRAG_SAMPLES; i++) {
+            baseline.continueStroke(200 + i * 45, 540 + (i % 2 == 0 ? 30 : -30));
+        }
+        baseline.endStroke();
+        return baseline.undo();
+    }
+
+    @Benchmark
+    public boolean canvasEraserDragAndUndo() {
+        canvas.startStroke(200.0f, 540.0f);
+        for (int i = 1; i <= DRAG_SAMPLES; i++) {
+            canvas.continueStroke(200.0f + i * 45.0f, 540.0f + (i % 2 == 0 ? 30.0f : -30.0f));
+        }
+        canvas.endStroke();
+        return canvas.undo();
+    }
+}
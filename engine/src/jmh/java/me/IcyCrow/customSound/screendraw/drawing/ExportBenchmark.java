@@ -0,0 +1,59 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    @Param({"10000", "100000"})
+    public int canvasPoints;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path directory;
+    private List<Stroke> strokes;
+    private ForkJoinPool pool;
+    private TiledRasterizer rasterizer;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("screendraw-bench");
+        strokes = Traces.strokes(canvasPoints, 500, 5L);
+        pool = new ForkJoinPool(threads);
+        rasterizer = new TiledRasterizer(pool);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(directory.resolve("export.png"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Path exportPng() throws IOException {
+        Path path = directory.resolve("export.png");
+        DrawingExport.writePng(path, strokes, WIDTH, HEIGHT, 1.0f, rasterizer, progress -> {});
+        return path;
+    }
+}
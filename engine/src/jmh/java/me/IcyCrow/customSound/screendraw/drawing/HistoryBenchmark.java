@@ -0,0 +1,80 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistoryBenchmark {
+    @Param({"1000", "10000"})
+    public int strokes;
+
+    private Path spillDirectory;
+    private List<Stroke> strokeList;
+    private StrokeList state;
+    private Stroke extra;
+    private DrawingHistory history;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        spillDirectory = Files.createTempDirectory("screendraw-bench");
+        strokeList = Traces.strokes(strokes * 50, 50, 3L);
+        state = StrokeList.of(strokeList);
+        extra = Traces.strokes(50, 50, 4L).get(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        history = new DrawingHistory(DrawingHistory.DEFAULT_BYTE_BUDGET, spillDirectory);
+        StrokeList current = state;
+        for (int i = 0; i < 32; i++) {
+            StrokeList next = current.append(extra);
+            history.saveState(current, next, 0L, extra.estimateBytes());
+            current = next;
+        }
+        state = current;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        history.close();
+        state = StrokeList.of(strokeList);
+    }
+
+    @Benchmark
+    public StrokeList saveState() {
+        StrokeList next = state.append(extra);
+        history.saveState(state, next, 0L, extra.estimateBytes());
+        return next;
+    }
+
+    @Benchmark
+    public StrokeList undoRedo() {
+        StrokeList previous = history.undo(state);
+        return history.redo(previous);
+    }
+
+    @Benchmark
+    public List<Stroke> deepCopySnapshotBaseline() {
+        List<Stroke> copy = new ArrayList<>(strokeList.size());
+        for (Stroke stroke : strokeList) {
+            copy.add(stroke.copy());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,33 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolationBenchmark {
+    @Param({"8", "64", "512"})
+    public int distance;
+
+    @Benchmark
+    public List<DrawPoint> interpolatePoints() {
+        return Stroke.interpolatePoints(0, 0, distance, distance / 2, Traces.COLOR, Traces.SIZE);
+    }
+
+    @Benchmark
+    public Stroke addVertexSegment() {
+        Stroke stroke = new Stroke();
+        stroke.addVertex(0.0f, 0.0f, Traces.COLOR, Traces.SIZE);
+        stroke.addVertex(distance, distance / 2.0f, Traces.COLOR, Traces.SIZE);
+        return stroke;
+    }
+}
@@ -0,0 +1,59 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SmoothingBenchmark {
+    @Param({"200", "2000"})
+    public int points;
+
+    @Param({"0.05", "0.25", "1.0"})
+    public float tolerance;
+
+    private List<Point> trace;
+    private Stroke raw;
+    private BrushSettings brush;
+    private final BezierSmoother smoother = new BezierSmoother();
+
+    @Setup
+    public void setUp() {
+        trace = Traces.handwriting(points, 42L);
+        raw = Traces.rawStroke(trace);
+        brush = new BrushSettings(Traces.SIZE, Traces.COLOR, true);
+    }
+
+    @Benchmark
+    public BaselineStroke fixedSegmentsSmoothStroke() {
+        return BaselineBezierSmoother.smoothStroke(trace, brush);
+    }
+
+    @Benchmark
+    public Stroke adaptiveIncrementalSmoothing() {
+        Stroke stroke = new Stroke();
+        Point first = trace.get(0);
+        smoother.begin(stroke, first.x(), first.y(), Traces.COLOR, Traces.SIZE, tolerance);
+        for (int i = 1; i < trace.size(); i++) {
+            Point point = trace.get(i);
+            smoother.addControlPoint(point.x(), point.y(), Traces.COLOR, Traces.SIZE);
+        }
+        smoother.finish(Traces.COLOR, Traces.SIZE);
+        return stroke;
+    }
+
+    @Benchmark
+    public Stroke simplifyFinishedStroke() {
+        return StrokeSimplifier.simplify(raw, tolerance);
+    }
+}
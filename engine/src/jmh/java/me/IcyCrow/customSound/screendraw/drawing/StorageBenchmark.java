@@ -0,0 +1,71 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    @Param({"10000", "100000"})
+    public int canvasPoints;
+
+    private Path directory;
+    private Path saved;
+    private List<Stroke> strokes;
+    private BrushSettings brush;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("screendraw-bench");
+        saved = directory.resolve("drawing" + DrawingFile.EXTENSION);
+        strokes = Traces.strokes(canvasPoints, 500, 5L);
+        brush = new BrushSettings(Traces.SIZE, Traces.COLOR, true);
+        DrawingFile.write(saved, strokes, brush, WIDTH, HEIGHT, true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Path saveCompressed() throws IOException {
+        Path path = directory.resolve("save-compressed" + DrawingFile.EXTENSION);
+        DrawingFile.write(path, strokes, brush, WIDTH, HEIGHT, true);
+        return path;
+    }
+
+    @Benchmark
+    public Path saveUncompressed() throws IOException {
+        Path path = directory.resolve("save-raw" + DrawingFile.EXTENSION);
+        DrawingFile.write(path, strokes, brush, WIDTH, HEIGHT, false);
+        return path;
+    }
+
+    @Benchmark
+    public SavedDrawing load() throws IOException {
+        return DrawingFile.read(saved);
+    }
+}
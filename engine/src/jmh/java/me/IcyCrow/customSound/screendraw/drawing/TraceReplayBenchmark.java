@@ -0,0 +1,34 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TraceReplayBenchmark {
+    @Param({""})
+    public String tracePath;
+
+    private InputTrace trace;
+
+    @Setup
+    public void setUp() throws IOException {
+        trace = tracePath.isEmpty() ? Traces.session(200, 300, 17L) : InputTrace.read(Path.of(tracePath));
+    }
+
+    @Benchmark
+    public long replay() {
+        return InputTraceReplayer.replay(trace).stateHash();
+    }
+}
@@ -0,0 +1,115 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class Traces {
+    static final int COLOR = 0xFF2F80ED;
+    static final float SIZE = 4.0f;
+    static final long SAMPLE_NANOS = 4_000_000L;
+    static final long STROKE_GAP_NANOS = 150_000_000L;
+
+    private Traces() {
+    }
+
+    static List<Point> handwriting(int points, long seed) {
+        Random random = new Random(seed);
+        List<Point> trace = new ArrayList<>(points);
+        double t = 0.0;
+        double baseline = 200.0;
+        for (int i = 0; i < points; i++) {
+            t += 0.05 + random.nextDouble() * 0.05;
+            double x = 40.0 + t * 18.0 + 9.0 * Math.cos(t * 3.1);
+            double y = baseline + 22.0 * Math.sin(t * 2.3) + 6.0 * Math.sin(t * 7.7);
+            if (x > 1800.0) {
+                t = 0.0;
+                baseline += 60.0;
+            }
+            trace.add(new Point((float) (x + random.nextGaussian() * 0.3), (float) (y + random.nextGaussian() * 0.3)));
+        }
+        return trace;
+    }
+
+    static Stroke rawStroke(List<Point> trace) {
+        Stroke stroke = new Stroke();
+        for (Point point : trace) {
+            stroke.addVertex(point.x(), point.y(), COLOR, SIZE);
+        }
+        stroke.complete();
+        return stroke;
+    }
+
+    static List<Stroke> strokes(int totalPoints, int pointsPerStroke, long seed) {
+        Random random = new Random(seed);
+        List<Stroke> strokes = new ArrayList<>(totalPoints / pointsPerStroke + 1);
+        int remaining = totalPoints;
+        while (remaining > 0) {
+            int count = Math.min(pointsPerStroke, remaining);
+            Stroke stroke = new Stroke();
+            float x = random.nextFloat() * 1920.0f;
+            float y = random.nextFloat() * 1080.0f;
+            for (int i = 0; i < count; i++) {
+                x = Math.max(0.0f, Math.min(1920.0f, x + (float) random.nextGaussian() * 4.0f));
+                y = Math.max(0.0f, Math.min(1080.0f, y + (float) random.nextGaussian() * 4.0f));
+                stroke.addVertex(x, y, COLOR, SIZE);
+            }
+            stroke.complete();
+            strokes.add(stroke);
+            remaining -= count;
+        }
+        return strokes;
+    }
+
+    static List<BaselineStroke> baselineStrokes(List<Stroke> strokes) {
+        List<BaselineStroke> baseline = new ArrayList<>(strokes.size());
+        for (Stroke stroke : strokes) {
+            baseline.add(baselineStroke(stroke));
+        }
+        return baseline;
+    }
+
+    static BaselineStroke baselineStroke(Stroke stroke) {
+        List<DrawPoint> points = new ArrayList<>(stroke.getPointCount());
+        for (int run = 0; run < stroke.getRunCount(); run++) {
+            for (int i = stroke.getRunStart(run); i < stroke.getRunEnd(run); i++) {
+                points.add(new DrawPoint(Math.round(stroke.getX(i)), Math.round(stroke.getY(i)),
+                        stroke.getRunColor(run), stroke.getRunSize(run)));
+            }
+        }
+        return BaselineStroke.completed(points);
+    }
+
+    static InputTrace session(int strokes, int samplesPerStroke, long seed) {
+        DrawingCanvas canvas = new DrawingCanvas();
+        InputTraceRecorder recorder = new InputTraceRecorder(canvas);
+        Random random = new Random(seed);
+        long clock = 0L;
+        for (int i = 0; i < strokes; i++) {
+            List<Point> trace = handwriting(samplesPerStroke, seed + i);
+            float offsetX = random.nextFloat() * 400.0f;
+            float offsetY = random.nextFloat() * 600.0f;
+            clock += STROKE_GAP_NANOS;
+            if (i % 10 == 9) {
+                recorder.record(InputEvent.tool(ToolMode.ERASER), clock);
+            }
+            for (int j = 0; j < trace.size(); j++) {
+                Point point = trace.get(j);
+                InputEvent.Type type = j == 0 ? InputEvent.Type.PRESS
+                        : j == trace.size() - 1 ? InputEvent.Type.RELEASE : InputEvent.Type.DRAG;
+                clock += SAMPLE_NANOS;
+                recorder.record(InputEvent.pointer(type, point.x() * 0.5f + offsetX, point.y() * 0.5f + offsetY), clock);
+            }
+            if (i % 10 == 9) {
+                recorder.record(InputEvent.tool(ToolMode.BRUSH), clock);
+            }
+            if (i % 7 == 6) {
+                clock += STROKE_GAP_NANOS;
+                recorder.record(InputEvent.action(InputEvent.Type.UNDO), clock);
+                clock += STROKE_GAP_NANOS;
+                recorder.record(InputEvent.action(InputEvent.Type.REDO), clock);
+            }
+        }
+        return recorder.finish();
+    }
+}
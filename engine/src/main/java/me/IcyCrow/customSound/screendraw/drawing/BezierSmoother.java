@@ -0,0 +1,66 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public class BezierSmoother {
+    private static final int MAX_SEGMENTS = 64;
+
+    private Stroke target;
+    private float anchorX;
+    private float anchorY;
+    private float controlX;
+    private float controlY;
+    private boolean hasControl;
+    private float tolerance;
+
+    public void begin(Stroke target, float x, float y, int color, float size, float tolerance) {
+        this.target = target;
+        this.tolerance = tolerance;
+        this.anchorX = x;
+        this.anchorY = y;
+        this.hasControl = false;
+        target.addVertex(x, y, color, size);
+    }
+
+    public void addControlPoint(float x, float y, int color, float size) {
+        if (target == null) {
+            return;
+        }
+        if (!hasControl) {
+            controlX = x;
+            controlY = y;
+            hasControl = true;
+            return;
+        }
+
+        int segments = segmentsFor(anchorX, anchorY, controlX, controlY, x, y, tolerance);
+        for (int i = 1; i <= segments; i++) {
+            float t = (float) i / segments;
+            float u = 1 - t;
+            target.addVertex(
+                    u * u * anchorX + 2 * u * t * controlX + t * t * x,
+                    u * u * anchorY + 2 * u * t * controlY + t * t * y,
+                    color,
+                    size
+            );
+        }
+        anchorX = x;
+        anchorY = y;
+        hasControl = false;
+    }
+
+    public void finish(int color, float size) {
+        if (target != null && hasControl) {
+            target.addVertex(controlX, controlY, color, size);
+        }
+        target = null;
+        hasControl = false;
+    }
+
+
+    public static int segmentsFor(float x0, float y0, float x1, float y1, float x2, float y2, float tolerance) {
+        float ddx = x0 - 2 * x1 + x2;
+        float ddy = y0 - 2 * y1 + y2;
+        float bend = (float) Math.sqrt(ddx * ddx + ddy * ddy);
+        int segments = (int) Math.ceil(Math.sqrt(bend / (4.0f * Math.max(tolerance, 1.0e-3f))));
+        return Math.max(1, Math.min(MAX_SEGMENTS, segments));
+    }
+}
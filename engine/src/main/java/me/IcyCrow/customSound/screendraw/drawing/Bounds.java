@@ -0,0 +1,31 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public record Bounds(float minX, float minY, float maxX, float maxY) {
+    public static Bounds around(float x, float y, float radius) {
+        return new Bounds(x - radius, y - radius, x + radius, y + radius);
+    }
+
+    public boolean intersects(Bounds other) {
+        return other != null
+                && minX <= other.maxX && maxX >= other.minX
+                && minY <= other.maxY && maxY >= other.minY;
+    }
+
+    public Bounds union(Bounds other) {
+        if (other == null) {
+            return this;
+        }
+        return new Bounds(
+                Math.min(minX, other.minX), Math.min(minY, other.minY),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY)
+        );
+    }
+
+    public float width() {
+        return maxX - minX;
+    }
+
+    public float height() {
+        return maxY - minY;
+    }
+}
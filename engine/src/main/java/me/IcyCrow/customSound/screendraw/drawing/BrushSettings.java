@@ -5,6 +5,8 @@ public class BrushSettings {
     private int color;
     private float opacity;
     private boolean smoothingEnabled;
+    private float smoothingTolerance;
+    private float simplifyTolerance;
     private ToolMode toolMode;
     private final int[] colorSlots;
 
@@ -13,6 +15,11 @@ public class BrushSettings {
     private static final float MIN_OPACITY = 0.1f;
     private static final float MAX_OPACITY = 1.0f;
     private static final float DEFAULT_LINE_WIDTH = 2.0f;
+    private static final float MIN_SMOOTHING_TOLERANCE = 0.05f;
+    private static final float MAX_SMOOTHING_TOLERANCE = 4.0f;
+    private static final float DEFAULT_SMOOTHING_TOLERANCE = 0.25f;
+    private static final float MAX_SIMPLIFY_TOLERANCE = 4.0f;
+    private static final float DEFAULT_SIMPLIFY_TOLERANCE = 0.0f;
     private static final int DEFAULT_COLOR = 0xFFFFFFFF;
     private static final int[] DEFAULT_COLOR_SLOTS = {
             0xFFFFFFFF, 0xFFED1C24, 0xFF00A2E8, 0xFF22B14C, 0xFFFFC90E
@@ -23,17 +30,44 @@ public class BrushSettings {
         this.color = DEFAULT_COLOR;
         this.opacity = MAX_OPACITY;
         this.smoothingEnabled = true;
+        this.smoothingTolerance = DEFAULT_SMOOTHING_TOLERANCE;
+        this.simplifyTolerance = DEFAULT_SIMPLIFY_TOLERANCE;
         this.toolMode = ToolMode.BRUSH;
         this.colorSlots = DEFAULT_COLOR_SLOTS.clone();
     }
 
     public BrushSettings(float lineWidth, int color, boolean smoothingEnabled) {
         this();
-        setLineWidth(lineWidth);
-        setColor(color);
+        this.lineWidth = clampLineWidth(lineWidth);
+        this.color = normalizeOpaque(color);
+        int alpha = (color >>> 24) & 0xFF;
+        if (alpha != 0xFF && alpha != 0) {
+            this.opacity = clampOpacity(alpha / 255.0f);
+        }
         this.smoothingEnabled = smoothingEnabled;
     }
 
+    public BrushSettings copy() {
+        BrushSettings copy = new BrushSettings(lineWidth, color, smoothingEnabled);
+        copy.opacity = opacity;
+        copy.smoothingTolerance = smoothingTolerance;
+        copy.simplifyTolerance = simplifyTolerance;
+        copy.toolMode = toolMode;
+        copy.setColorSlots(colorSlots);
+        return copy;
+    }
+
+    public void copyFrom(BrushSettings other) {
+        lineWidth = other.lineWidth;
+        color = other.color;
+        opacity = other.opacity;
+        smoothingEnabled = other.smoothingEnabled;
+        smoothingTolerance = other.smoothingTolerance;
+        simplifyTolerance = other.simplifyTolerance;
+        toolMode = other.toolMode;
+        setColorSlots(other.colorSlots);
+    }
+
     public boolean adjustSize(float delta) {
         float oldLineWidth = lineWidth;
         setLineWidth(lineWidth + delta);
@@ -75,6 +109,14 @@ public class BrushSettings {
         return smoothingEnabled;
     }
 
+    public float getSmoothingTolerance() {
+        return smoothingTolerance;
+    }
+
+    public float getSimplifyTolerance() {
+        return simplifyTolerance;
+    }
+
     public ToolMode getToolMode() {
         return toolMode;
     }
@@ -84,7 +126,7 @@ public class BrushSettings {
     }
 
     public void setLineWidth(float lineWidth) {
-        this.lineWidth = Math.max(MIN_LINE_WIDTH, Math.min(MAX_LINE_WIDTH, lineWidth));
+        this.lineWidth = clampLineWidth(lineWidth);
     }
 
     public void setColor(int color) {
@@ -96,13 +138,21 @@ public class BrushSettings {
     }
 
     public void setOpacity(float opacity) {
-        this.opacity = Math.max(MIN_OPACITY, Math.min(MAX_OPACITY, opacity));
+        this.opacity = clampOpacity(opacity);
     }
 
     public void setSmoothingEnabled(boolean smoothingEnabled) {
         this.smoothingEnabled = smoothingEnabled;
     }
 
+    public void setSmoothingTolerance(float smoothingTolerance) {
+        this.smoothingTolerance = Math.max(MIN_SMOOTHING_TOLERANCE, Math.min(MAX_SMOOTHING_TOLERANCE, smoothingTolerance));
+    }
+
+    public void setSimplifyTolerance(float simplifyTolerance) {
+        this.simplifyTolerance = Math.max(0.0f, Math.min(MAX_SIMPLIFY_TOLERANCE, simplifyTolerance));
+    }
+
     public void setToolMode(ToolMode toolMode) {
         this.toolMode = toolMode == null ? ToolMode.BRUSH : toolMode;
     }
@@ -160,6 +210,14 @@ public class BrushSettings {
         return MAX_OPACITY;
     }
 
+    private static float clampLineWidth(float lineWidth) {
+        return Math.max(MIN_LINE_WIDTH, Math.min(MAX_LINE_WIDTH, lineWidth));
+    }
+
+    private static float clampOpacity(float opacity) {
+        return Math.max(MIN_OPACITY, Math.min(MAX_OPACITY, opacity));
+    }
+
     private static int normalizeOpaque(int color) {
         return 0xFF000000 | (color & 0x00FFFFFF);
     }
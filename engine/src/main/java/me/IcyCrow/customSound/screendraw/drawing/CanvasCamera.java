@@ -0,0 +1,98 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public class CanvasCamera {
+    public static final float MIN_ZOOM = 1.0f / 64.0f;
+    public static final float MAX_ZOOM = 32.0f;
+    public static final int MAX_DETAIL_LEVEL = 6;
+    private static final float LOD_PIXEL_TOLERANCE = 0.5f;
+
+    private float offsetX;
+    private float offsetY;
+    private float zoom = 1.0f;
+    private int revision;
+
+    public float toWorldX(double screenX) {
+        return (float) ((screenX - offsetX) / zoom);
+    }
+
+    public float toWorldY(double screenY) {
+        return (float) ((screenY - offsetY) / zoom);
+    }
+
+    public float toScreenX(float worldX) {
+        return worldX * zoom + offsetX;
+    }
+
+    public float toScreenY(float worldY) {
+        return worldY * zoom + offsetY;
+    }
+
+    public Bounds toWorld(Bounds screen) {
+        return new Bounds(toWorldX(screen.minX()), toWorldY(screen.minY()),
+                toWorldX(screen.maxX()), toWorldY(screen.maxY()));
+    }
+
+    public Bounds toScreen(Bounds world) {
+        return new Bounds(toScreenX(world.minX()), toScreenY(world.minY()),
+                toScreenX(world.maxX()), toScreenY(world.maxY()));
+    }
+
+    public Bounds getVisibleBounds(float screenWidth, float screenHeight) {
+        return toWorld(new Bounds(0.0f, 0.0f, screenWidth, screenHeight));
+    }
+
+    public void pan(double screenDeltaX, double screenDeltaY) {
+        if (screenDeltaX == 0.0 && screenDeltaY == 0.0) {
+            return;
+        }
+        offsetX += (float) screenDeltaX;
+        offsetY += (float) screenDeltaY;
+        revision++;
+    }
+
+    public boolean zoomAt(double screenX, double screenY, float factor) {
+        float newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        if (newZoom == zoom) {
+            return false;
+        }
+        float worldX = toWorldX(screenX);
+        float worldY = toWorldY(screenY);
+        zoom = newZoom;
+        offsetX = (float) (screenX - worldX * zoom);
+        offsetY = (float) (screenY - worldY * zoom);
+        revision++;
+        return true;
+    }
+
+    public boolean reset() {
+        if (offsetX == 0.0f && offsetY == 0.0f && zoom == 1.0f) {
+            return false;
+        }
+        offsetX = 0.0f;
+        offsetY = 0.0f;
+        zoom = 1.0f;
+        revision++;
+        return true;
+    }
+
+    public boolean isIdentity() {
+        return offsetX == 0.0f && offsetY == 0.0f && zoom == 1.0f;
+    }
+
+    public int getDetailLevel() {
+        if (zoom >= 1.0f) {
+            return 0;
+        }
+        int level = 31 - Integer.numberOfLeadingZeros((int) (1.0f / zoom));
+        return Math.min(MAX_DETAIL_LEVEL, level);
+    }
+
+    public static float detailTolerance(int level) {
+        return level <= 0 ? 0.0f : LOD_PIXEL_TOLERANCE * (1 << level);
+    }
+
+    public float getOffsetX() { return offsetX; }
+    public float getOffsetY() { return offsetY; }
+    public float getZoom() { return zoom; }
+    public int getRevision() { return revision; }
+}
@@ -0,0 +1,5 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public interface CanvasCommand {
+    boolean apply(DrawingCanvas canvas);
+}
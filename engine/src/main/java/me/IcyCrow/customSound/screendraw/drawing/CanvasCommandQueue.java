@@ -0,0 +1,114 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class CanvasCommandQueue {
+    private static final int DRAG_CAPACITY = 1024;
+
+    private final DrawingCanvas canvas;
+    private final ConcurrentLinkedQueue<Pending> commands = new ConcurrentLinkedQueue<>();
+    private final Object dragLock = new Object();
+    private final InputSampleBuffer drags = new InputSampleBuffer(DRAG_CAPACITY);
+    private volatile DragHandler dragHandler = InputEvent::drag;
+    private volatile CanvasSnapshot snapshot;
+    private Thread writer;
+
+    public CanvasCommandQueue(DrawingCanvas canvas) {
+        this.canvas = canvas;
+        this.snapshot = CanvasSnapshot.of(canvas);
+    }
+
+    public void submit(CanvasCommand command) {
+        long dragsBefore;
+        synchronized (dragLock) {
+            dragsBefore = drags.getWrittenSamples();
+            drags.breakRun();
+        }
+        commands.offer(new Pending(command, dragsBefore));
+    }
+
+    public void submitDrag(double x, double y) {
+        synchronized (dragLock) {
+            if (drags.offer(x, y)) {
+                return;
+            }
+        }
+        submit(target -> {
+            dragHandler.drag(target, x, y);
+            return true;
+        });
+    }
+
+    public void setDragHandler(DragHandler dragHandler) {
+        this.dragHandler = dragHandler;
+    }
+
+    public CanvasSnapshot drain() {
+        Thread thread = Thread.currentThread();
+        if (writer == null) {
+            writer = thread;
+        } else if (writer != thread) {
+            throw new IllegalStateException("Canvas commands are owned by " + writer.getName()
+                    + " and cannot be applied on " + thread.getName());
+        }
+
+        boolean changed = canvas.applyFinishedStrokes() > 0;
+        Pending pending;
+        while ((pending = commands.poll()) != null) {
+            applyDrags(pending.dragsBefore());
+            pending.command().apply(canvas);
+            changed = true;
+        }
+        if (applyDrags(Long.MAX_VALUE)) {
+            changed = true;
+        }
+        if (canvas.applyFinishedStrokes() > 0) {
+            changed = true;
+        }
+        if (changed) {
+            snapshot = CanvasSnapshot.of(canvas);
+        }
+        return snapshot;
+    }
+
+    public CanvasSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public boolean isEmpty() {
+        synchronized (dragLock) {
+            return commands.isEmpty() && drags.isEmpty();
+        }
+    }
+
+    public DrawingCanvas getCanvas() { return canvas; }
+
+    public InputSampleBuffer getPendingInput() { return drags; }
+
+    private boolean applyDrags(long limit) {
+        DragHandler handler = dragHandler;
+        boolean applied = false;
+        while (true) {
+            double x;
+            double y;
+            synchronized (dragLock) {
+                if (drags.isEmpty() || drags.getDrainedSamples() >= limit) {
+                    return applied;
+                }
+                x = drags.firstX();
+                y = drags.firstY();
+                drags.removeFirst();
+            }
+            handler.drag(canvas, x, y);
+            applied = true;
+        }
+    }
+
+    private record Pending(CanvasCommand command, long dragsBefore) {
+    }
+
+    @FunctionalInterface
+    public interface DragHandler {
+        void drag(DrawingCanvas canvas, double x, double y);
+    }
+}
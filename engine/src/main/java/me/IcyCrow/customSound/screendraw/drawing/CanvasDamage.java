@@ -0,0 +1,9 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.List;
+
+public record CanvasDamage(boolean full, List<Bounds> regions) {
+    public boolean isEmpty() {
+        return !full && regions.isEmpty();
+    }
+}
@@ -0,0 +1,7 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public interface CanvasRenderer<C> {
+    int renderStrokes(DrawingCanvas canvas, Bounds clip, int from, int vertexBudget, C context);
+
+    void renderCurrentStroke(Stroke stroke, Bounds visible, C context);
+}
@@ -0,0 +1,14 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.List;
+
+public record CanvasSnapshot(StrokeList strokes, int revision, BrushSettings brush,
+                             float offsetX, float offsetY, float zoom) {
+    public static CanvasSnapshot of(DrawingCanvas canvas) {
+        CanvasCamera camera = canvas.getCamera();
+        return new CanvasSnapshot(canvas.getCommittedStrokes(), canvas.getRevision(), canvas.getBrushSettings().copy(),
+                camera.getOffsetX(), camera.getOffsetY(), camera.getZoom());
+    }
+
+    public List<Stroke> getStrokes() { return strokes.asList(); }
+}
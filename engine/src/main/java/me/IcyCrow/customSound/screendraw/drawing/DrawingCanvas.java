@@ -0,0 +1,467 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DrawingCanvas {
+    private StrokeList strokes;
+    private StrokeList strokesBeforeEdit;
+    private Stroke currentStroke;
+    private final BezierSmoother smoother = new BezierSmoother();
+    private boolean smoothingStroke;
+    private final DrawingHistory history;
+    private final StrokeFinalizer finalizer;
+    private final StrokeSpatialIndex spatialIndex;
+    private final Map<Stroke, Integer> positions = new IdentityHashMap<>();
+    private final Map<Stroke, Stroke> erasedCopies = new IdentityHashMap<>();
+    private final ArrayDeque<Stroke> unindexedStrokes = new ArrayDeque<>();
+    private final List<Stroke> eraseCandidates = new ArrayList<>();
+    private long erasedBytes;
+    private final BrushSettings brushSettings;
+    private final CanvasCamera camera = new CanvasCamera();
+
+    private boolean isDrawing;
+    private float lastMouseX = Float.NaN;
+    private float lastMouseY = Float.NaN;
+    private int revision;
+    private int lastStrokeInputPoints;
+    private int lastStrokePoints;
+    private final List<Bounds> damage = new ArrayList<>();
+    private boolean fullDamage = true;
+
+    private static final int MAX_DAMAGE_REGIONS = 64;
+
+    public DrawingCanvas() {
+        this(new DrawingHistory());
+    }
+
+    public DrawingCanvas(DrawingHistory history) {
+        this(history, StrokeFinalizer.synchronous());
+    }
+
+    public DrawingCanvas(DrawingHistory history, StrokeFinalizer finalizer) {
+        this.strokes = StrokeList.empty();
+        this.currentStroke = null;
+        this.history = history;
+        this.finalizer = finalizer;
+        this.spatialIndex = new StrokeSpatialIndex();
+        this.brushSettings = new BrushSettings();
+        this.isDrawing = false;
+    }
+
+    public void startStroke(float mouseX, float mouseY) {
+        if (isDrawing) {
+            return;
+        }
+
+        applyFinishedStrokes();
+        isDrawing = true;
+        strokesBeforeEdit = strokes;
+        lastMouseX = mouseX;
+        lastMouseY = mouseY;
+
+        if (brushSettings.isEraserSelected()) {
+            currentStroke = null;
+            eraseAt(mouseX, mouseY);
+            return;
+        }
+
+        currentStroke = new Stroke();
+        smoothingStroke = brushSettings.isSmoothingEnabled();
+        if (smoothingStroke) {
+            smoother.begin(currentStroke, mouseX, mouseY, brushSettings.getEffectiveColor(),
+                    brushSettings.getLineWidth(), brushSettings.getSmoothingTolerance());
+        } else {
+            currentStroke.addVertex(mouseX, mouseY, brushSettings.getEffectiveColor(), brushSettings.getLineWidth());
+        }
+    }
+
+    public void continueStroke(float mouseX, float mouseY) {
+        if (!isDrawing || (mouseX == lastMouseX && mouseY == lastMouseY)) {
+            return;
+        }
+
+        if (brushSettings.isEraserSelected()) {
+            eraseBetween(lastMouseX, lastMouseY, mouseX, mouseY);
+            lastMouseX = mouseX;
+            lastMouseY = mouseY;
+            return;
+        }
+
+        if (currentStroke != null) {
+            if (smoothingStroke) {
+                smoother.addControlPoint(mouseX, mouseY, brushSettings.getEffectiveColor(), brushSettings.getLineWidth());
+            } else if (!Float.isNaN(lastMouseX)) {
+                currentStroke.addVertex(mouseX, mouseY, brushSettings.getEffectiveColor(), brushSettings.getLineWidth());
+            }
+
+            lastMouseX = mouseX;
+            lastMouseY = mouseY;
+        }
+    }
+
+    public void endStroke() {
+        if (!isDrawing) {
+            return;
+        }
+
+        isDrawing = false;
+
+        long addedBytes = 0L;
+        if (currentStroke != null) {
+            if (smoothingStroke) {
+                long smoothingStarted = DrawingMetrics.start();
+                smoother.finish(brushSettings.getEffectiveColor(), brushSettings.getLineWidth());
+                DrawingMetrics.stop(DrawingMetrics.Timer.SMOOTHING, smoothingStarted);
+            }
+            lastStrokeInputPoints = currentStroke.getPointCount();
+            lastStrokePoints = currentStroke.getPointCount();
+
+            if (!currentStroke.isEmpty()) {
+                currentStroke.complete();
+                strokes = strokes.append(currentStroke);
+                positions.put(currentStroke, strokes.size() - 1);
+                unindexedStrokes.addLast(currentStroke);
+                markDamaged(currentStroke.getBounds());
+                revision++;
+                finalizer.submit(currentStroke, brushSettings.getSimplifyTolerance(), spatialIndex);
+                addedBytes = currentStroke.estimateBytes();
+            }
+        }
+        addedBytes += commitErase();
+
+        if (strokes != strokesBeforeEdit) {
+            history.saveState(strokesBeforeEdit, strokes, erasedBytes, addedBytes);
+        }
+        strokesBeforeEdit = null;
+        erasedBytes = 0L;
+
+        currentStroke = null;
+        lastMouseX = Float.NaN;
+        lastMouseY = Float.NaN;
+        applyFinishedStrokes();
+    }
+
+    public int applyFinishedStrokes() {
+        int applied = 0;
+        StrokeFinalizer.Result result;
+        while ((result = finalizer.poll()) != null) {
+            swapFinalized(result);
+            applied++;
+        }
+        return applied;
+    }
+
+    public void awaitPendingStrokes() {
+        finalizer.awaitAll();
+    }
+
+    public boolean hasPendingStrokes() {
+        return !finalizer.isIdle();
+    }
+
+    public boolean undo() {
+        endStroke();
+        StrokeList previous = history.undo(strokes);
+        if (previous == null) {
+            return false;
+        }
+        setState(previous);
+        return true;
+    }
+
+    public boolean redo() {
+        endStroke();
+        StrokeList next = history.redo(strokes);
+        if (next == null) {
+            return false;
+        }
+        setState(next);
+        return true;
+    }
+
+    public boolean clear() {
+        endStroke();
+        if (strokes.isEmpty() && (currentStroke == null || currentStroke.isEmpty())) {
+            return false;
+        }
+        if (currentStroke != null) {
+            currentStroke.clear();
+        }
+        if (!strokes.isEmpty()) {
+            history.saveState(strokes, StrokeList.empty(), bytesOf(strokes), 0L);
+            setState(StrokeList.empty());
+        }
+        return true;
+    }
+
+    public void replaceStrokes(List<Stroke> newStrokes, boolean saveHistory) {
+        endStroke();
+        List<Stroke> loaded = new ArrayList<>(newStrokes.size());
+        for (Stroke stroke : newStrokes) {
+            loaded.add(stroke.copy());
+        }
+
+        StrokeList loadedState = StrokeList.of(loaded);
+        if (saveHistory) {
+            history.saveState(strokes, loadedState, bytesOf(strokes), bytesOf(loadedState));
+        } else {
+            history.clear();
+        }
+        setState(loadedState);
+        currentStroke = null;
+        isDrawing = false;
+        lastMouseX = Float.NaN;
+        lastMouseY = Float.NaN;
+    }
+
+    public boolean adjustBrushSize(float delta) {
+        return brushSettings.adjustSize(delta);
+    }
+
+    public boolean adjustOpacity(float delta) {
+        return brushSettings.adjustOpacity(delta);
+    }
+
+    public void toggleSmoothing() {
+        brushSettings.toggleSmoothing();
+    }
+
+    public void setToolMode(ToolMode toolMode) {
+        brushSettings.setToolMode(toolMode);
+    }
+
+    public void toggleToolMode() {
+        brushSettings.toggleToolMode();
+    }
+
+    public int getTotalPointCount() {
+        int total = 0;
+        for (Stroke stroke : strokes) {
+            total += stroke.getPointCount();
+        }
+        if (currentStroke != null) {
+            total += currentStroke.getPointCount();
+        }
+        return total;
+    }
+
+    private void eraseBetween(float x1, float y1, float x2, float y2) {
+        eraseCapsule(x1, y1, x2, y2);
+    }
+
+    private void eraseAt(float mouseX, float mouseY) {
+        eraseCapsule(mouseX, mouseY, mouseX, mouseY);
+    }
+
+    private void eraseCapsule(float x1, float y1, float x2, float y2) {
+        long started = DrawingMetrics.start();
+        float radius = Math.max(2.0f, brushSettings.getLineWidth());
+        float reach = radius + BrushSettings.getMaxLineWidth() / 2.0f * StrokeGeometry.MITER_LIMIT;
+        Bounds region = new Bounds(
+                Math.min(x1, x2) - reach, Math.min(y1, y2) - reach,
+                Math.max(x1, x2) + reach, Math.max(y1, y2) + reach
+        );
+
+        boolean changed = false;
+        spatialIndex.query(region, eraseCandidates);
+        for (Stroke stroke : eraseCandidates) {
+            changed |= eraseStroke(stroke, x1, y1, x2, y2, radius);
+        }
+        eraseCandidates.clear();
+        if (!unindexedStrokes.isEmpty()) {
+            for (Stroke stroke : unindexedStrokes) {
+                if ((positions.containsKey(stroke) || erasedCopies.containsKey(stroke))
+                        && !spatialIndex.contains(stroke) && stroke.intersects(region)) {
+                    changed |= eraseStroke(stroke, x1, y1, x2, y2, radius);
+                }
+            }
+        }
+
+        if (changed) {
+            revision++;
+            markDamaged(region);
+        }
+        DrawingMetrics.stop(DrawingMetrics.Timer.ERASE, started);
+    }
+
+    private boolean eraseStroke(Stroke stroke, float x1, float y1, float x2, float y2, float radius) {
+        Stroke copy = erasedCopies.get(stroke);
+        if (copy != null) {
+            return copy.eraseCapsule(x1, y1, x2, y2, radius);
+        }
+        Stroke erased = stroke.erasedCapsule(x1, y1, x2, y2, radius);
+        if (erased == null || !replaceAt(stroke, erased)) {
+            return false;
+        }
+        erasedCopies.put(stroke, erased);
+        erasedBytes += stroke.estimateBytes();
+        return true;
+    }
+
+    private void swapFinalized(StrokeFinalizer.Result result) {
+        DrawingMetrics.record(DrawingMetrics.Timer.SIMPLIFY, result.simplifyNanos());
+        Stroke raw = result.raw();
+        Stroke finalized = result.finalized();
+        lastStrokePoints = finalized.getPointCount();
+        if (!positions.containsKey(raw)) {
+            if (!erasedCopies.containsKey(raw)) {
+                unindexedStrokes.remove(raw);
+            }
+            return;
+        }
+        unindexedStrokes.remove(raw);
+        if (raw == finalized) {
+            spatialIndex.add(raw, result.cells());
+            return;
+        }
+
+        boolean unedited = strokesBeforeEdit == strokes;
+        if (strokesBeforeEdit != null && !unedited) {
+            int index = strokesBeforeEdit.lastIndexOf(raw);
+            if (index >= 0) {
+                strokesBeforeEdit = strokesBeforeEdit.set(index, finalized);
+            }
+        }
+        replaceAt(raw, finalized);
+        if (unedited) {
+            strokesBeforeEdit = strokes;
+        }
+        spatialIndex.remove(raw);
+        spatialIndex.add(finalized, result.cells());
+        markDamaged(raw.getBounds());
+        revision++;
+    }
+
+    private long commitErase() {
+        if (erasedCopies.isEmpty()) {
+            return 0L;
+        }
+        long bytes = 0L;
+        int firstEmpty = Integer.MAX_VALUE;
+        for (Map.Entry<Stroke, Stroke> entry : erasedCopies.entrySet()) {
+            Stroke original = entry.getKey();
+            Stroke copy = entry.getValue();
+            copy.complete();
+            spatialIndex.remove(original);
+            unindexedStrokes.remove(original);
+            if (copy.isEmpty()) {
+                firstEmpty = Math.min(firstEmpty, positions.remove(copy));
+            } else {
+                spatialIndex.add(copy);
+                bytes += copy.estimateBytes();
+            }
+        }
+        erasedCopies.clear();
+        if (firstEmpty != Integer.MAX_VALUE) {
+            strokes = strokes.filter(stroke -> !stroke.isEmpty());
+            reindex(firstEmpty);
+        }
+        revision++;
+        return bytes;
+    }
+
+    private boolean replaceAt(Stroke previous, Stroke next) {
+        Integer index = positions.remove(previous);
+        if (index == null) {
+            return false;
+        }
+        strokes = strokes.set(index, next);
+        positions.put(next, index);
+        return true;
+    }
+
+    private void reindex() {
+        positions.clear();
+        reindex(0);
+    }
+
+    private void reindex(int from) {
+        for (int index = from; index < strokes.size(); index++) {
+            positions.put(strokes.get(index), index);
+        }
+    }
+
+    private void setState(StrokeList next) {
+        StrokeList previous = strokes;
+        strokes = next;
+        reindex();
+        revision++;
+
+        Set<Stroke> previousStrokes = identitySet(previous);
+        Set<Stroke> nextStrokes = identitySet(next);
+        for (Stroke stroke : previous) {
+            if (!nextStrokes.contains(stroke)) {
+                spatialIndex.remove(stroke);
+                markDamaged(stroke.getBounds());
+            }
+        }
+        for (Stroke stroke : next) {
+            if (!previousStrokes.contains(stroke)) {
+                spatialIndex.add(stroke);
+                markDamaged(stroke.getBounds());
+            }
+        }
+    }
+
+    private static long bytesOf(StrokeList strokes) {
+        long bytes = 0L;
+        for (Stroke stroke : strokes) {
+            bytes += stroke.estimateBytes();
+        }
+        return bytes;
+    }
+
+    private static Set<Stroke> identitySet(StrokeList strokes) {
+        Set<Stroke> result = Collections.newSetFromMap(new IdentityHashMap<>(strokes.size() * 2));
+        for (Stroke stroke : strokes) {
+            result.add(stroke);
+        }
+        return result;
+    }
+
+    private void markDamaged(Bounds region) {
+        if (fullDamage || region == null) {
+            return;
+        }
+        if (!damage.isEmpty() && damage.getLast().intersects(region)) {
+            damage.set(damage.size() - 1, damage.getLast().union(region));
+        } else {
+            damage.add(region);
+        }
+        if (damage.size() > MAX_DAMAGE_REGIONS) {
+            fullDamage = true;
+            damage.clear();
+        }
+    }
+
+    public CanvasDamage consumeDamage() {
+        CanvasDamage result = new CanvasDamage(fullDamage, List.copyOf(damage));
+        fullDamage = false;
+        damage.clear();
+        return result;
+    }
+
+    public void invalidateAll() {
+        fullDamage = true;
+        damage.clear();
+    }
+
+    public List<Stroke> getStrokes() { return strokes.asList(); }
+    public StrokeList getStrokeList() { return strokes; }
+    public StrokeList getCommittedStrokes() { return erasedCopies.isEmpty() ? strokes : strokesBeforeEdit; }
+    public Stroke getCurrentStroke() { return currentStroke; }
+    public BrushSettings getBrushSettings() { return brushSettings; }
+    public DrawingHistory getHistory() { return history; }
+    public boolean isDrawing() { return isDrawing; }
+    public int getStrokeCount() { return strokes.size(); }
+    public int getRevision() { return revision; }
+    public CanvasCamera getCamera() { return camera; }
+    public int getLastStrokeInputPoints() { return lastStrokeInputPoints; }
+    public int getLastStrokePoints() { return lastStrokePoints; }
+}
@@ -0,0 +1,74 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+public final class DrawingExport {
+    public static final int MAX_DIMENSION = 16384;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final TiledRasterizer RASTERIZER = new TiledRasterizer();
+
+    private DrawingExport() {
+    }
+
+    public static Path exportPng(Path directory, List<Stroke> strokes, Bounds region, Size size,
+                                 DoubleConsumer progress) throws IOException {
+        float scale = size.resolveScale(region.width());
+        int exportWidth = Math.round(region.width() * scale);
+        int exportHeight = Math.round(region.height() * scale);
+        if (!(scale > 0.0f) || exportWidth < 1 || exportHeight < 1
+                || exportWidth > MAX_DIMENSION || exportHeight > MAX_DIMENSION) {
+            throw new IOException("Export size " + exportWidth + "x" + exportHeight + " is out of range");
+        }
+
+        Files.createDirectories(directory);
+        Path path = directory.resolve("drawing-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + ".png");
+        writePng(path, strokes, region.minX(), region.minY(), exportWidth, exportHeight, scale, RASTERIZER, progress);
+        return path;
+    }
+
+    public static void writePng(Path path, List<Stroke> strokes, int width, int height, float scale,
+                                TiledRasterizer rasterizer, DoubleConsumer progress) throws IOException {
+        writePng(path, strokes, 0.0f, 0.0f, width, height, scale, rasterizer, progress);
+    }
+
+    public static void writePng(Path path, List<Stroke> strokes, float worldX, float worldY, int width, int height,
+                                float scale, TiledRasterizer rasterizer, DoubleConsumer progress) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             PngWriter png = new PngWriter(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), width, height)) {
+            rasterizer.rasterize(strokes, worldX, worldY, width, height, scale, png::writeRow, progress);
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(temp);
+            throw exception;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public record Size(float scale, int targetWidth) {
+        public static Size scale(float scale) {
+            return new Size(scale, 0);
+        }
+
+        public static Size width(int targetWidth) {
+            return new Size(0.0f, targetWidth);
+        }
+
+        public float resolveScale(float canvasWidth) {
+            return targetWidth > 0 ? targetWidth / Math.max(1.0f, canvasWidth) : scale;
+        }
+    }
+}
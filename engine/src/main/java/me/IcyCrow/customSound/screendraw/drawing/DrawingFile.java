@@ -0,0 +1,211 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+public final class DrawingFile {
+    public static final String EXTENSION = ".sdraw";
+
+    private static final int MAGIC = 0x53445257;
+    private static final int VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_COLOR_SLOTS = 256;
+    private static final int MAX_CANVAS_DIMENSION = 1 << 16;
+    private static final int PROGRESS_INTERVAL = 256;
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private DrawingFile() {
+    }
+
+    public static Path save(Path directory, List<Stroke> strokes, BrushSettings brush,
+                            int width, int height) throws IOException {
+        return save(directory, strokes, brush, width, height, progress -> {});
+    }
+
+    public static Path save(Path directory, List<Stroke> strokes, BrushSettings brush, int width, int height,
+                            DoubleConsumer progress) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve("drawing-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + EXTENSION);
+        write(path, strokes, brush, width, height, true, progress);
+        return path;
+    }
+
+    public static SavedDrawing load(Path directory) throws IOException {
+        return load(directory, progress -> {});
+    }
+
+    public static SavedDrawing load(Path directory, DoubleConsumer progress) throws IOException {
+        Path latest = findLatest(directory);
+        return latest != null ? read(latest, progress) : null;
+    }
+
+    public static void write(Path path, List<Stroke> strokes, BrushSettings brush,
+                             int width, int height, boolean compress) throws IOException {
+        write(path, strokes, brush, width, height, compress, progress -> {});
+    }
+
+    public static void write(Path path, List<Stroke> strokes, BrushSettings brush,
+                             int width, int height, boolean compress, DoubleConsumer progress) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream raw = Channels.newOutputStream(channel);
+            DataOutputStream header = new DataOutputStream(raw);
+            header.writeInt(MAGIC);
+            header.writeShort(VERSION);
+            header.writeByte(compress ? FLAG_DEFLATE : 0);
+            header.writeInt(width);
+            header.writeInt(height);
+            header.flush();
+
+            OutputStream body = compress ? new DeflaterOutputStream(raw, deflater, BUFFER_SIZE) : raw;
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body, BUFFER_SIZE));
+            writeBrush(out, brush);
+            StrokeCodec.writeVarInt(out, strokes.size());
+            for (int i = 0; i < strokes.size(); i++) {
+                StrokeCodec.write(out, strokes.get(i));
+                reportProgress(progress, i, strokes.size());
+            }
+            out.close();
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(temp);
+            throw exception;
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static SavedDrawing read(Path path) throws IOException {
+        return read(path, progress -> {});
+    }
+
+    public static SavedDrawing read(Path path, DoubleConsumer progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            InputStream raw = Channels.newInputStream(channel);
+            DataInputStream header = new DataInputStream(raw);
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Not a ScreenDraw drawing: " + path.getFileName());
+            }
+            int version = header.readUnsignedShort();
+            if (version > VERSION) {
+                throw new IOException("Unsupported drawing version " + version);
+            }
+            int flags = header.readUnsignedByte();
+            int width = header.readInt();
+            int height = header.readInt();
+            if (width <= 0 || height <= 0 || width > MAX_CANVAS_DIMENSION || height > MAX_CANVAS_DIMENSION) {
+                throw new IOException("Invalid canvas size " + width + "x" + height + " in " + path.getFileName());
+            }
+
+            InputStream body = (flags & FLAG_DEFLATE) != 0 ? new InflaterInputStream(raw) : raw;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(body, BUFFER_SIZE))) {
+                return readBody(path, in, progress);
+            }
+        }
+    }
+
+    private static SavedDrawing readBody(Path path, DataInputStream in, DoubleConsumer progress) throws IOException {
+        int color = in.readInt();
+        float lineWidth = in.readFloat();
+        float opacity = in.readFloat();
+        boolean smoothingEnabled = in.readBoolean();
+        ToolMode toolMode = readToolMode(in.readUTF());
+        int slotCount = StrokeCodec.readVarInt(in);
+        if (slotCount < 0 || slotCount > MAX_COLOR_SLOTS) {
+            throw new IOException("Invalid color slot count: " + slotCount);
+        }
+        int[] colorSlots = new int[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            colorSlots[i] = in.readInt();
+        }
+
+        int strokeCount = StrokeCodec.readVarInt(in);
+        if (strokeCount < 0) {
+            throw new IOException("Invalid stroke count: " + strokeCount);
+        }
+        List<Stroke> strokes = new ArrayList<>(Math.min(strokeCount, 4096));
+        for (int i = 0; i < strokeCount; i++) {
+            strokes.add(StrokeCodec.read(in));
+            reportProgress(progress, i, strokeCount);
+        }
+        return new SavedDrawing(path, strokes, color, lineWidth, opacity,
+                smoothingEnabled, toolMode, colorSlots);
+    }
+
+    private static void reportProgress(DoubleConsumer progress, int index, int total) throws IOException {
+        if (index % PROGRESS_INTERVAL != 0) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Drawing file operation cancelled");
+        }
+        progress.accept((double) index / total);
+    }
+
+    private static void writeBrush(DataOutputStream out, BrushSettings brush) throws IOException {
+        out.writeInt(brush.getColor());
+        out.writeFloat(brush.getLineWidth());
+        out.writeFloat(brush.getOpacity());
+        out.writeBoolean(brush.isSmoothingEnabled());
+        out.writeUTF(brush.getToolMode().name());
+        int[] slots = brush.getColorSlots();
+        StrokeCodec.writeVarInt(out, slots.length);
+        for (int slot : slots) {
+            out.writeInt(slot);
+        }
+    }
+
+    private static ToolMode readToolMode(String name) {
+        for (ToolMode mode : ToolMode.values()) {
+            if (mode.name().equals(name)) {
+                return mode;
+            }
+        }
+        return ToolMode.BRUSH;
+    }
+
+    private static Path findLatest(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        Path latest = null;
+        FileTime latestTime = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                FileTime time = Files.getLastModifiedTime(file);
+                if (latestTime == null || time.compareTo(latestTime) > 0) {
+                    latest = file;
+                    latestTime = time;
+                }
+            }
+        }
+        return latest;
+    }
+}
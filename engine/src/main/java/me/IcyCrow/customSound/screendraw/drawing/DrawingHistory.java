@@ -0,0 +1,363 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+public class DrawingHistory implements AutoCloseable {
+    public static final long DEFAULT_BYTE_BUDGET = 32L * 1024L * 1024L;
+
+    private static final int OP_COPY = 0;
+    private static final int OP_STROKE = 1;
+    private static final long MIN_COMPACT_GARBAGE = 1024L * 1024L;
+    private static final long ENTRY_BYTES = 64L;
+
+    private final List<Entry> undoHistory = new ArrayList<>();
+    private final List<Entry> redoHistory = new ArrayList<>();
+    private final Path spillDirectory;
+    private long byteBudget;
+    private long residentBytes;
+
+    private FileChannel spillChannel;
+    private long spillEnd;
+    private long spilledBytes;
+    private int spilledEntries;
+    private boolean spillFailed;
+    private IOException spillError;
+    private IOException restoreError;
+
+    public DrawingHistory() {
+        this(DEFAULT_BYTE_BUDGET, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    public DrawingHistory(long byteBudget, Path spillDirectory) {
+        this.byteBudget = Math.max(0L, byteBudget);
+        this.spillDirectory = spillDirectory;
+    }
+
+    public void saveState(StrokeList state, StrokeList next, long removedBytes, long addedBytes) {
+        push(undoHistory, state, removedBytes, addedBytes);
+        releaseAll(redoHistory);
+        enforceBudget();
+    }
+
+    public StrokeList undo(StrokeList current) {
+        return step(undoHistory, redoHistory, current);
+    }
+
+    public StrokeList redo(StrokeList current) {
+        return step(redoHistory, undoHistory, current);
+    }
+
+    public boolean canUndo() {
+        return !undoHistory.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoHistory.isEmpty();
+    }
+
+    public int getUndoHistorySize() {
+        return undoHistory.size();
+    }
+
+    public int getSpilledStateCount() {
+        return spilledEntries;
+    }
+
+    public long getSpillFileBytes() {
+        return spillEnd;
+    }
+
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    public void setByteBudget(long byteBudget) {
+        this.byteBudget = Math.max(0L, byteBudget);
+        enforceBudget();
+    }
+
+    public IOException takeSpillError() {
+        IOException error = spillError;
+        spillError = null;
+        return error;
+    }
+
+    public IOException takeRestoreError() {
+        IOException error = restoreError;
+        restoreError = null;
+        return error;
+    }
+
+    public void clear() {
+        releaseAll(undoHistory);
+        releaseAll(redoHistory);
+    }
+
+    @Override
+    public void close() {
+        clear();
+        closeSpillFile();
+    }
+
+    private StrokeList step(List<Entry> from, List<Entry> to, StrokeList current) {
+        if (from.isEmpty()) {
+            return null;
+        }
+
+        Entry entry = from.removeLast();
+        StrokeList restored;
+        try {
+            restored = materialize(entry, current);
+        } catch (IOException exception) {
+            restoreError = exception;
+            releaseAll(from);
+            return null;
+        } finally {
+            release(entry);
+        }
+
+        push(to, current, entry.neighbourBytes, entry.bytes - ENTRY_BYTES);
+        enforceBudget();
+        return restored;
+    }
+
+    private void push(List<Entry> stack, StrokeList state, long uniqueBytes, long neighbourBytes) {
+        Entry entry = new Entry(state, ENTRY_BYTES + uniqueBytes, neighbourBytes);
+        stack.addLast(entry);
+        residentBytes += entry.bytes;
+    }
+
+    private StrokeList materialize(Entry entry, StrokeList neighbour) throws IOException {
+        if (entry.state != null) {
+            return entry.state;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(entry.spillLength);
+        long position = entry.spillOffset;
+        while (buffer.hasRemaining()) {
+            int read = spillChannel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("History spill file truncated");
+            }
+        }
+        return decodeDelta(buffer.array(), neighbour);
+    }
+
+    private void enforceBudget() {
+        while (residentBytes > byteBudget && !spillFailed) {
+            if (!spillOldest(undoHistory) && !spillOldest(redoHistory)) {
+                return;
+            }
+        }
+    }
+
+    private boolean spillOldest(List<Entry> stack) {
+        for (int i = 0; i < stack.size() - 1; i++) {
+            Entry entry = stack.get(i);
+            if (entry.state == null) {
+                continue;
+            }
+            try {
+                byte[] encoded = encodeDelta(entry.state, stack.get(i + 1).state);
+                entry.spillOffset = writeSpill(encoded);
+                entry.spillLength = encoded.length;
+            } catch (IOException exception) {
+                spillFailed = true;
+                spillError = exception;
+                return false;
+            }
+            entry.state = null;
+            residentBytes -= entry.bytes;
+            spilledBytes += entry.spillLength;
+            spilledEntries++;
+            return true;
+        }
+        return false;
+    }
+
+    private long writeSpill(byte[] encoded) throws IOException {
+        if (spillChannel == null) {
+            Files.createDirectories(spillDirectory);
+            Path path = Files.createTempFile(spillDirectory, "history-", ".spill");
+            spillChannel = FileChannel.open(path,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            path.toFile().deleteOnExit();
+            spillEnd = 0L;
+        } else if (spillEnd - spilledBytes > Math.max(MIN_COMPACT_GARBAGE, spilledBytes)) {
+            compactSpill();
+        }
+
+        long offset = spillEnd;
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        while (buffer.hasRemaining()) {
+            spillChannel.write(buffer, offset + buffer.position());
+        }
+        spillEnd += encoded.length;
+        return offset;
+    }
+
+    private void compactSpill() throws IOException {
+        List<Entry> spilled = new ArrayList<>(spilledEntries);
+        for (Entry entry : undoHistory) {
+            if (entry.state == null) {
+                spilled.add(entry);
+            }
+        }
+        for (Entry entry : redoHistory) {
+            if (entry.state == null) {
+                spilled.add(entry);
+            }
+        }
+        spilled.sort((a, b) -> Long.compare(a.spillOffset, b.spillOffset));
+
+        long target = 0L;
+        for (Entry entry : spilled) {
+            if (entry.spillOffset != target) {
+                ByteBuffer buffer = ByteBuffer.allocate(entry.spillLength);
+                while (buffer.hasRemaining()) {
+                    if (spillChannel.read(buffer, entry.spillOffset + buffer.position()) < 0) {
+                        throw new IOException("History spill file truncated");
+                    }
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    spillChannel.write(buffer, target + buffer.position());
+                }
+                entry.spillOffset = target;
+            }
+            target += entry.spillLength;
+        }
+        spillChannel.truncate(target);
+        spillEnd = target;
+    }
+
+    private void releaseAll(List<Entry> stack) {
+        for (Entry entry : stack) {
+            release(entry);
+        }
+        stack.clear();
+    }
+
+    private void release(Entry entry) {
+        if (entry.state != null) {
+            residentBytes -= entry.bytes;
+            return;
+        }
+        spilledEntries--;
+        spilledBytes -= entry.spillLength;
+        if (spilledEntries == 0) {
+            spillFailed = false;
+            if (spillChannel != null) {
+                try {
+                    spillChannel.truncate(0L);
+                    spillEnd = 0L;
+                } catch (IOException exception) {
+                    closeSpillFile();
+                }
+            }
+        }
+    }
+
+    private void closeSpillFile() {
+        if (spillChannel == null) {
+            return;
+        }
+        try {
+            spillChannel.close();
+        } catch (IOException ignored) {
+        }
+        spillChannel = null;
+        spillEnd = 0L;
+        spilledBytes = 0L;
+    }
+
+    private static byte[] encodeDelta(StrokeList state, StrokeList neighbour) throws IOException {
+        Map<Stroke, Integer> neighbourIndex = new IdentityHashMap<>(neighbour.size() * 2);
+        for (int i = 0; i < neighbour.size(); i++) {
+            neighbourIndex.put(neighbour.get(i), i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            StrokeCodec.writeVarInt(out, state.size());
+            int index = 0;
+            while (index < state.size()) {
+                Integer match = neighbourIndex.get(state.get(index));
+                if (match == null) {
+                    out.writeByte(OP_STROKE);
+                    StrokeCodec.write(out, state.get(index));
+                    index++;
+                    continue;
+                }
+
+                int length = 1;
+                while (index + length < state.size() && match + length < neighbour.size()
+                        && state.get(index + length) == neighbour.get(match + length)) {
+                    length++;
+                }
+                out.writeByte(OP_COPY);
+                StrokeCodec.writeVarInt(out, match);
+                StrokeCodec.writeVarInt(out, length);
+                index += length;
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static StrokeList decodeDelta(byte[] encoded, StrokeList neighbour) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(encoded)))) {
+            int size = StrokeCodec.readVarInt(in);
+            List<Stroke> strokes = new ArrayList<>(size);
+            while (strokes.size() < size) {
+                int op = in.readUnsignedByte();
+                if (op == OP_STROKE) {
+                    strokes.add(StrokeCodec.read(in));
+                } else if (op == OP_COPY) {
+                    int start = StrokeCodec.readVarInt(in);
+                    int length = StrokeCodec.readVarInt(in);
+                    if (start + length > neighbour.size()) {
+                        throw new IOException("History delta does not match its neighbouring state");
+                    }
+                    for (int i = start; i < start + length; i++) {
+                        strokes.add(neighbour.get(i));
+                    }
+                } else {
+                    throw new IOException("Unknown history op: " + op);
+                }
+            }
+            return StrokeList.of(strokes);
+        }
+    }
+
+    private static final class Entry {
+        private StrokeList state;
+        private final long bytes;
+        private final long neighbourBytes;
+        private long spillOffset;
+        private int spillLength;
+
+        private Entry(StrokeList state, long bytes, long neighbourBytes) {
+            this.state = state;
+            this.bytes = bytes;
+            this.neighbourBytes = neighbourBytes;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+public final class DrawingMetrics {
+    public static final int WINDOW = 120;
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+    private static final Series[] TIMERS = new Series[Timer.values().length];
+    private static final long[] COUNTERS = new long[Counter.values().length];
+    private static final Series[] FRAME_COUNTERS = new Series[Counter.values().length];
+    private static final Series ALLOCATED_BYTES = new Series();
+
+    private static volatile boolean enabled;
+    private static long frameAllocationStart = -1L;
+
+    static {
+        for (int i = 0; i < TIMERS.length; i++) {
+            TIMERS[i] = new Series();
+        }
+        for (int i = 0; i < FRAME_COUNTERS.length; i++) {
+            FRAME_COUNTERS[i] = new Series();
+        }
+    }
+
+    public enum Timer {
+        RENDER,
+        ERASE,
+        SMOOTHING,
+        SIMPLIFY
+    }
+
+    public enum Counter {
+        VERTICES
+    }
+
+    private DrawingMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        if (value && !enabled) {
+            reset();
+        }
+        enabled = value;
+    }
+
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Timer timer, long startNanos) {
+        if (enabled && startNanos != 0L) {
+            TIMERS[timer.ordinal()].add(System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void record(Timer timer, long nanos) {
+        if (enabled) {
+            TIMERS[timer.ordinal()].add(nanos);
+        }
+    }
+
+    public static void add(Counter counter, long amount) {
+        if (enabled) {
+            COUNTERS[counter.ordinal()] += amount;
+        }
+    }
+
+    public static void frame() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            FRAME_COUNTERS[i].add(COUNTERS[i]);
+            COUNTERS[i] = 0L;
+        }
+        long allocated = currentThreadAllocatedBytes();
+        if (allocated >= 0L && frameAllocationStart >= 0L) {
+            ALLOCATED_BYTES.add(allocated - frameAllocationStart);
+        }
+        frameAllocationStart = allocated;
+    }
+
+    public static Series timer(Timer timer) {
+        return TIMERS[timer.ordinal()];
+    }
+
+    public static Series perFrame(Counter counter) {
+        return FRAME_COUNTERS[counter.ordinal()];
+    }
+
+    public static Series allocatedBytesPerFrame() {
+        return ALLOCATED_BYTES;
+    }
+
+    public static boolean isAllocationTrackingSupported() {
+        return ALLOCATION_BEAN != null;
+    }
+
+    public static long currentThreadAllocatedBytes() {
+        return ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getCurrentThreadAllocatedBytes() : -1L;
+    }
+
+    public static void reset() {
+        for (Series series : TIMERS) {
+            series.clear();
+        }
+        for (Series series : FRAME_COUNTERS) {
+            series.clear();
+        }
+        Arrays.fill(COUNTERS, 0L);
+        ALLOCATED_BYTES.clear();
+        frameAllocationStart = -1L;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean allocationBean
+                    && allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+                return allocationBean;
+            }
+        } catch (RuntimeException | LinkageError ignored) {
+        }
+        return null;
+    }
+
+    public static final class Series {
+        private final long[] values = new long[WINDOW];
+        private int next;
+        private int size;
+        private long last;
+
+        private void add(long value) {
+            values[next] = value;
+            next = (next + 1) % WINDOW;
+            size = Math.min(size + 1, WINDOW);
+            last = value;
+        }
+
+        private void clear() {
+            next = 0;
+            size = 0;
+            last = 0L;
+        }
+
+        public long last() {
+            return last;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public double average() {
+            if (size == 0) {
+                return 0.0;
+            }
+            long total = 0L;
+            for (int i = 0; i < size; i++) {
+                total += values[i];
+            }
+            return (double) total / size;
+        }
+
+        public long max() {
+            long max = 0L;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public record InputEvent(Type type, float x, float y, float value, int argument) implements CanvasCommand {
+    public enum Type {
+        PRESS,
+        DRAG,
+        RELEASE,
+        END_STROKE,
+        PAN,
+        ZOOM,
+        RESET_VIEW,
+        UNDO,
+        REDO,
+        CLEAR,
+        TOOL,
+        TOGGLE_TOOL,
+        TOGGLE_SMOOTHING,
+        BRUSH_SIZE,
+        OPACITY,
+        COLOR
+    }
+
+    public static InputEvent pointer(Type type, double x, double y) {
+        return new InputEvent(type, (float) x, (float) y, 0.0f, 0);
+    }
+
+    public static InputEvent pan(double deltaX, double deltaY) {
+        return new InputEvent(Type.PAN, (float) deltaX, (float) deltaY, 0.0f, 0);
+    }
+
+    public static InputEvent zoom(double x, double y, float factor) {
+        return new InputEvent(Type.ZOOM, (float) x, (float) y, factor, 0);
+    }
+
+    public static InputEvent action(Type type) {
+        return new InputEvent(type, 0.0f, 0.0f, 0.0f, 0);
+    }
+
+    public static InputEvent adjust(Type type, float delta) {
+        return new InputEvent(type, 0.0f, 0.0f, delta, 0);
+    }
+
+    public static InputEvent tool(ToolMode toolMode) {
+        return new InputEvent(Type.TOOL, 0.0f, 0.0f, 0.0f, toolMode.ordinal());
+    }
+
+    public static InputEvent color(int color) {
+        return new InputEvent(Type.COLOR, 0.0f, 0.0f, 0.0f, color);
+    }
+
+    public static void drag(DrawingCanvas canvas, double x, double y) {
+        CanvasCamera camera = canvas.getCamera();
+        canvas.continueStroke(camera.toWorldX(x), camera.toWorldY(y));
+    }
+
+    @Override
+    public boolean apply(DrawingCanvas canvas) {
+        CanvasCamera camera = canvas.getCamera();
+        return switch (type) {
+            case PRESS -> {
+                canvas.startStroke(camera.toWorldX(x), camera.toWorldY(y));
+                yield true;
+            }
+            case DRAG -> {
+                drag(canvas, x, y);
+                yield true;
+            }
+            case RELEASE -> {
+                canvas.continueStroke(camera.toWorldX(x), camera.toWorldY(y));
+                canvas.endStroke();
+                yield true;
+            }
+            case END_STROKE -> {
+                canvas.endStroke();
+                yield true;
+            }
+            case PAN -> {
+                camera.pan(x, y);
+                yield true;
+            }
+            case ZOOM -> camera.zoomAt(x, y, value);
+            case RESET_VIEW -> camera.reset();
+            case UNDO -> canvas.undo();
+            case REDO -> canvas.redo();
+            case CLEAR -> canvas.clear();
+            case TOOL -> {
+                canvas.setToolMode(ToolMode.values()[argument]);
+                yield true;
+            }
+            case TOGGLE_TOOL -> {
+                canvas.toggleToolMode();
+                yield true;
+            }
+            case TOGGLE_SMOOTHING -> {
+                canvas.toggleSmoothing();
+                yield true;
+            }
+            case BRUSH_SIZE -> canvas.adjustBrushSize(value);
+            case OPACITY -> canvas.adjustOpacity(value);
+            case COLOR -> {
+                canvas.getBrushSettings().setColor(argument);
+                yield true;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public final class InputSampleBuffer {
+    private final double[] xs;
+    private final double[] ys;
+    private final int mask;
+    private int head;
+    private int size;
+    private double lastX = Double.NaN;
+    private double lastY = Double.NaN;
+    private long receivedSamples;
+    private long droppedSamples;
+    private long writtenSamples;
+    private long drainedSamples;
+
+    public InputSampleBuffer(int capacity) {
+        int rounded = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.xs = new double[rounded];
+        this.ys = new double[rounded];
+        this.mask = rounded - 1;
+    }
+
+    public boolean offer(double x, double y) {
+        receivedSamples++;
+        if (x == lastX && y == lastY) {
+            droppedSamples++;
+            return true;
+        }
+        if (size == xs.length) {
+            return false;
+        }
+
+        int index = (head + size) & mask;
+        xs[index] = x;
+        ys[index] = y;
+        size++;
+        writtenSamples++;
+        lastX = x;
+        lastY = y;
+        return true;
+    }
+
+    public double firstX() {
+        return xs[head];
+    }
+
+    public double firstY() {
+        return ys[head];
+    }
+
+    public void removeFirst() {
+        head = (head + 1) & mask;
+        size--;
+        drainedSamples++;
+    }
+
+    public void breakRun() {
+        lastX = Double.NaN;
+        lastY = Double.NaN;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return xs.length;
+    }
+
+    public long getReceivedSamples() { return receivedSamples; }
+
+    public long getDroppedSamples() { return droppedSamples; }
+
+    public long getWrittenSamples() { return writtenSamples; }
+
+    public long getDrainedSamples() { return drainedSamples; }
+}
@@ -0,0 +1,241 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+public final class InputTrace {
+    public static final String EXTENSION = ".sdtrace";
+
+    private static final int MAGIC = 0x53445452;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_COLOR_SLOTS = 256;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final InputEvent.Type[] TYPES = InputEvent.Type.values();
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final List<Stroke> initialStrokes;
+    private final BrushSettings initialBrush;
+    private final float offsetX;
+    private final float offsetY;
+    private final float zoom;
+    private final List<InputEvent> events;
+    private final long[] timestamps;
+
+    public InputTrace(List<Stroke> initialStrokes, BrushSettings initialBrush, float offsetX, float offsetY,
+                      float zoom, List<InputEvent> events, long[] timestamps) {
+        if (events.size() != timestamps.length) {
+            throw new IllegalArgumentException("Expected " + events.size() + " timestamps, got " + timestamps.length);
+        }
+        this.initialStrokes = List.copyOf(initialStrokes);
+        this.initialBrush = initialBrush.copy();
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.zoom = zoom;
+        this.events = List.copyOf(events);
+        this.timestamps = timestamps.clone();
+    }
+
+    public void restore(DrawingCanvas canvas) {
+        canvas.replaceStrokes(initialStrokes, false);
+        canvas.getBrushSettings().copyFrom(initialBrush);
+        CanvasCamera camera = canvas.getCamera();
+        camera.reset();
+        camera.zoomAt(0.0, 0.0, zoom);
+        camera.pan(offsetX, offsetY);
+    }
+
+    public List<InputEvent> getEvents() { return events; }
+    public long getTimestamp(int index) { return timestamps[index]; }
+    public long getDurationNanos() { return timestamps.length == 0 ? 0L : timestamps[timestamps.length - 1]; }
+    public List<Stroke> getInitialStrokes() { return initialStrokes; }
+    public int size() { return events.size(); }
+
+    public Path save(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve("trace-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + EXTENSION);
+        write(path);
+        return path;
+    }
+
+    public void write(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            DataOutputStream body = new DataOutputStream(new BufferedOutputStream(
+                    new DeflaterOutputStream(out, deflater, BUFFER_SIZE), BUFFER_SIZE));
+            writeBrush(body, initialBrush);
+            body.writeFloat(offsetX);
+            body.writeFloat(offsetY);
+            body.writeFloat(zoom);
+            StrokeCodec.writeVarInt(body, initialStrokes.size());
+            for (Stroke stroke : initialStrokes) {
+                StrokeCodec.write(body, stroke);
+            }
+
+            StrokeCodec.writeVarInt(body, events.size());
+            long previousMicros = 0L;
+            for (int i = 0; i < events.size(); i++) {
+                long micros = timestamps[i] / 1000L;
+                StrokeCodec.writeVarInt(body, (int) Math.min(Integer.MAX_VALUE, Math.max(0L, micros - previousMicros)));
+                previousMicros = micros;
+                writeEvent(body, events.get(i));
+            }
+            body.close();
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(temp);
+            throw exception;
+        } finally {
+            deflater.end();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static InputTrace read(Path path) throws IOException {
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Not a ScreenDraw input trace: " + path.getFileName());
+            }
+            int version = header.readUnsignedShort();
+            if (version > VERSION) {
+                throw new IOException("Unsupported trace version " + version);
+            }
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(header), BUFFER_SIZE))) {
+                return readBody(in);
+            }
+        }
+    }
+
+    private static InputTrace readBody(DataInputStream in) throws IOException {
+        BrushSettings brush = readBrush(in);
+        float offsetX = in.readFloat();
+        float offsetY = in.readFloat();
+        float zoom = in.readFloat();
+        int strokeCount = StrokeCodec.readVarInt(in);
+        if (strokeCount < 0) {
+            throw new IOException("Invalid stroke count: " + strokeCount);
+        }
+        List<Stroke> strokes = new ArrayList<>(Math.min(strokeCount, 4096));
+        for (int i = 0; i < strokeCount; i++) {
+            strokes.add(StrokeCodec.read(in));
+        }
+
+        int eventCount = StrokeCodec.readVarInt(in);
+        if (eventCount < 0) {
+            throw new IOException("Invalid event count: " + eventCount);
+        }
+        List<InputEvent> events = new ArrayList<>(Math.min(eventCount, INITIAL_CAPACITY));
+        long[] timestamps = new long[Math.min(eventCount, INITIAL_CAPACITY)];
+        long micros = 0L;
+        for (int i = 0; i < eventCount; i++) {
+            int delta = StrokeCodec.readVarInt(in);
+            if (delta < 0) {
+                throw new IOException("Invalid event timestamp delta: " + delta);
+            }
+            micros += delta;
+            if (i == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, Math.min(eventCount, i * 2));
+            }
+            timestamps[i] = micros * 1000L;
+            events.add(readEvent(in));
+        }
+        return new InputTrace(strokes, brush, offsetX, offsetY, zoom, events, timestamps);
+    }
+
+    private static void writeEvent(DataOutputStream out, InputEvent event) throws IOException {
+        out.writeByte(event.type().ordinal());
+        switch (event.type()) {
+            case PRESS, DRAG, RELEASE, PAN -> {
+                out.writeFloat(event.x());
+                out.writeFloat(event.y());
+            }
+            case ZOOM -> {
+                out.writeFloat(event.x());
+                out.writeFloat(event.y());
+                out.writeFloat(event.value());
+            }
+            case BRUSH_SIZE, OPACITY -> out.writeFloat(event.value());
+            case TOOL -> out.writeByte(event.argument());
+            case COLOR -> out.writeInt(event.argument());
+            default -> {
+            }
+        }
+    }
+
+    private static InputEvent readEvent(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= TYPES.length) {
+            throw new IOException("Unknown input event type " + ordinal);
+        }
+        InputEvent.Type type = TYPES[ordinal];
+        return switch (type) {
+            case PRESS, DRAG, RELEASE -> InputEvent.pointer(type, in.readFloat(), in.readFloat());
+            case PAN -> InputEvent.pan(in.readFloat(), in.readFloat());
+            case ZOOM -> InputEvent.zoom(in.readFloat(), in.readFloat(), in.readFloat());
+            case BRUSH_SIZE, OPACITY -> InputEvent.adjust(type, in.readFloat());
+            case TOOL -> {
+                int tool = in.readUnsignedByte();
+                if (tool >= ToolMode.values().length) {
+                    throw new IOException("Unknown tool " + tool);
+                }
+                yield InputEvent.tool(ToolMode.values()[tool]);
+            }
+            case COLOR -> InputEvent.color(in.readInt());
+            default -> InputEvent.action(type);
+        };
+    }
+
+    private static void writeBrush(DataOutputStream out, BrushSettings brush) throws IOException {
+        out.writeInt(brush.getColor());
+        out.writeFloat(brush.getLineWidth());
+        out.writeFloat(brush.getOpacity());
+        out.writeBoolean(brush.isSmoothingEnabled());
+        out.writeFloat(brush.getSmoothingTolerance());
+        out.writeFloat(brush.getSimplifyTolerance());
+        out.writeByte(brush.getToolMode().ordinal());
+        int[] slots = brush.getColorSlots();
+        StrokeCodec.writeVarInt(out, slots.length);
+        for (int slot : slots) {
+            out.writeInt(slot);
+        }
+    }
+
+    private static BrushSettings readBrush(DataInputStream in) throws IOException {
+        BrushSettings brush = new BrushSettings();
+        brush.setColor(in.readInt());
+        brush.setLineWidth(in.readFloat());
+        brush.setOpacity(in.readFloat());
+        brush.setSmoothingEnabled(in.readBoolean());
+        brush.setSmoothingTolerance(in.readFloat());
+        brush.setSimplifyTolerance(in.readFloat());
+        int tool = in.readUnsignedByte();
+        brush.setToolMode(tool < ToolMode.values().length ? ToolMode.values()[tool] : ToolMode.BRUSH);
+        int slotCount = StrokeCodec.readVarInt(in);
+        if (slotCount < 0 || slotCount > MAX_COLOR_SLOTS) {
+            throw new IOException("Invalid color slot count: " + slotCount);
+        }
+        int[] slots = new int[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = in.readInt();
+        }
+        brush.setColorSlots(slots);
+        return brush;
+    }
+}
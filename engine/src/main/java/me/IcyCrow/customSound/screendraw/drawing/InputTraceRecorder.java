@@ -0,0 +1,48 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class InputTraceRecorder {
+    private final List<Stroke> initialStrokes;
+    private final BrushSettings initialBrush;
+    private final float offsetX;
+    private final float offsetY;
+    private final float zoom;
+    private final long startNanos;
+    private final List<InputEvent> events = new ArrayList<>();
+    private long[] timestamps = new long[256];
+
+    public InputTraceRecorder(DrawingCanvas canvas) {
+        CanvasCamera camera = canvas.getCamera();
+        this.initialStrokes = canvas.getCommittedStrokes().asList();
+        this.initialBrush = canvas.getBrushSettings().copy();
+        this.offsetX = camera.getOffsetX();
+        this.offsetY = camera.getOffsetY();
+        this.zoom = camera.getZoom();
+        this.startNanos = System.nanoTime();
+    }
+
+    public void record(InputEvent event) {
+        record(event, System.nanoTime() - startNanos);
+    }
+
+    public void record(InputEvent event, long timestampNanos) {
+        int index = events.size();
+        if (index == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, index * 2);
+        }
+        timestamps[index] = timestampNanos;
+        events.add(event);
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    public InputTrace finish() {
+        return new InputTrace(initialStrokes, initialBrush, offsetX, offsetY, zoom,
+                events, Arrays.copyOf(timestamps, events.size()));
+    }
+}
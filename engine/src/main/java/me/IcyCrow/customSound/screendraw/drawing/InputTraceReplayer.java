@@ -0,0 +1,144 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public final class InputTraceReplayer {
+    public static final long FRAME_NANOS = 1_000_000_000L / 60L;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private InputTraceReplayer() {
+    }
+
+    public static Result replay(InputTrace trace) {
+        try (DrawingHistory history = new DrawingHistory()) {
+            DrawingCanvas canvas = new DrawingCanvas(history, StrokeFinalizer.background());
+            trace.restore(canvas);
+            CanvasCommandQueue commands = new CanvasCommandQueue(canvas);
+
+            List<InputEvent> events = trace.getEvents();
+            long[] frames = new long[events.size()];
+            int frameCount = 0;
+            long elapsed = 0L;
+            long allocationStart = DrawingMetrics.currentThreadAllocatedBytes();
+            int index = 0;
+            while (index < events.size()) {
+                long frameEnd = (trace.getTimestamp(index) / FRAME_NANOS + 1L) * FRAME_NANOS;
+                canvas.awaitPendingStrokes();
+                long frameStarted = System.nanoTime();
+                while (index < events.size() && trace.getTimestamp(index) < frameEnd) {
+                    InputEvent event = events.get(index++);
+                    if (event.type() == InputEvent.Type.DRAG) {
+                        commands.submitDrag(event.x(), event.y());
+                    } else {
+                        commands.submit(event);
+                    }
+                }
+                commands.drain();
+                long frame = System.nanoTime() - frameStarted;
+                frames[frameCount++] = frame;
+                elapsed += frame;
+            }
+            long allocationEnd = DrawingMetrics.currentThreadAllocatedBytes();
+            canvas.awaitPendingStrokes();
+            commands.drain();
+            long allocated = allocationStart >= 0L && allocationEnd >= 0L ? allocationEnd - allocationStart : -1L;
+            return new Result(Arrays.copyOf(frames, frameCount), elapsed, allocated, stateHash(canvas));
+        }
+    }
+
+    public static long stateHash(DrawingCanvas canvas) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, canvas.getStrokeCount());
+        for (Stroke stroke : canvas.getStrokeList()) {
+            hash = mix(hash, stroke.getPointCount());
+            hash = mix(hash, stroke.getRunCount());
+            for (int run = 0; run < stroke.getRunCount(); run++) {
+                hash = mix(hash, stroke.getRunStart(run));
+                hash = mix(hash, stroke.getRunColor(run));
+                hash = mix(hash, Float.floatToIntBits(stroke.getRunSize(run)));
+            }
+            for (int i = 0; i < stroke.getPointCount(); i++) {
+                hash = mix(hash, Float.floatToIntBits(stroke.getX(i)));
+                hash = mix(hash, Float.floatToIntBits(stroke.getY(i)));
+            }
+        }
+
+        BrushSettings brush = canvas.getBrushSettings();
+        hash = mix(hash, brush.getEffectiveColor());
+        hash = mix(hash, Float.floatToIntBits(brush.getLineWidth()));
+        hash = mix(hash, brush.isSmoothingEnabled() ? 1 : 0);
+        hash = mix(hash, brush.getToolMode().ordinal());
+
+        CanvasCamera camera = canvas.getCamera();
+        hash = mix(hash, Float.floatToIntBits(camera.getOffsetX()));
+        hash = mix(hash, Float.floatToIntBits(camera.getOffsetY()));
+        hash = mix(hash, Float.floatToIntBits(camera.getZoom()));
+        return mix(hash, canvas.getHistory().getUndoHistorySize());
+    }
+
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args[0].isEmpty()) {
+            System.err.println("Usage: InputTraceReplayer <trace" + InputTrace.EXTENSION + "> [iterations] [expected-hash]");
+            System.exit(2);
+        }
+        InputTrace trace = InputTrace.read(Path.of(args[0]));
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Long expected = args.length > 2 ? Long.parseUnsignedLong(args[2], 16) : null;
+
+        System.out.printf(Locale.ROOT, "%s: %d events, %d initial strokes, %.1f s recorded%n", args[0], trace.size(),
+                trace.getInitialStrokes().size(), trace.getDurationNanos() / 1.0e9);
+        Result result = null;
+        for (int i = 1; i <= iterations; i++) {
+            Result current = replay(trace);
+            System.out.printf(Locale.ROOT, "#%d %s%n", i, current);
+            if (result != null && current.stateHash() != result.stateHash()) {
+                System.err.println("Replay is not deterministic: state hash changed between iterations");
+                System.exit(1);
+            }
+            result = current;
+        }
+        if (expected != null && result != null && result.stateHash() != expected) {
+            System.err.printf(Locale.ROOT, "State hash %016x does not match expected %016x%n", result.stateHash(), expected);
+            System.exit(1);
+        }
+    }
+
+    public record Result(long[] frameNanos, long elapsedNanos, long allocatedBytes, long stateHash) {
+        public long percentile(double percentile) {
+            if (frameNanos.length == 0) {
+                return 0L;
+            }
+            long[] sorted = frameNanos.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        public long max() {
+            return percentile(100.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d frames, total %.2f ms, p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us, allocated %s, hash %016x",
+                    frameNanos.length, elapsedNanos / 1.0e6, percentile(50.0) / 1.0e3, percentile(90.0) / 1.0e3, percentile(99.0) / 1.0e3,
+                    percentile(99.9) / 1.0e3, max() / 1.0e3,
+                    allocatedBytes >= 0L ? allocatedBytes + " B" : "n/a", stateHash);
+        }
+    }
+}
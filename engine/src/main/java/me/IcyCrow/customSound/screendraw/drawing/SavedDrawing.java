@@ -0,0 +1,8 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public record SavedDrawing(Path path, List<Stroke> strokes, int color, float lineWidth, float opacity,
+                           boolean smoothingEnabled, ToolMode toolMode, int[] colorSlots) {
+}
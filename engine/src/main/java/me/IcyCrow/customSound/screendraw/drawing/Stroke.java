@@ -0,0 +1,643 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class Stroke {
+    public static final float VERTEX_PRECISION = 256.0f;
+    public static final int CHUNK_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_RUN_CAPACITY = 2;
+    private static final float STAMP_TOLERANCE = 1.0f;
+
+    private float[] xs;
+    private float[] ys;
+    private int count;
+
+    private int[] runStarts;
+    private int[] runColors;
+    private float[] runSizes;
+    private int runCount;
+
+    private float minX = Float.POSITIVE_INFINITY;
+    private float minY = Float.POSITIVE_INFINITY;
+    private float maxX = Float.NEGATIVE_INFINITY;
+    private float maxY = Float.NEGATIVE_INFINITY;
+    private float[] chunkBounds;
+
+    private boolean completed;
+    private int version;
+    private Bounds bounds;
+
+    public Stroke() {
+        this.xs = new float[INITIAL_CAPACITY];
+        this.ys = new float[INITIAL_CAPACITY];
+        this.runStarts = new int[INITIAL_RUN_CAPACITY];
+        this.runColors = new int[INITIAL_RUN_CAPACITY];
+        this.runSizes = new float[INITIAL_RUN_CAPACITY];
+        this.chunkBounds = new float[4];
+        this.completed = false;
+    }
+
+    public Stroke(List<DrawPoint> pointStamps) {
+        this();
+        appendPointStamps(pointStamps);
+        this.completed = true;
+    }
+
+    public void addPoint(DrawPoint point) {
+        addVertex(point.x(), point.y(), point.color(), point.size());
+    }
+
+    public void addVertex(float x, float y, int color, float size) {
+        if (completed) {
+            return;
+        }
+
+        if (runCount == 0 || runColors[runCount - 1] != color || runSizes[runCount - 1] != size) {
+            boolean continues = count > 0;
+            float lastX = continues ? xs[count - 1] : 0.0f;
+            float lastY = continues ? ys[count - 1] : 0.0f;
+            startRun(color, size);
+            if (continues) {
+                append(lastX, lastY);
+            }
+        } else if (xs[count - 1] == x && ys[count - 1] == y) {
+            return;
+        }
+        append(x, y);
+    }
+
+    public void addPoints(List<DrawPoint> newPoints) {
+        for (DrawPoint point : newPoints) {
+            addPoint(point);
+        }
+    }
+
+    public void addRun(int color, float size, float[] runXs, float[] runYs, int length) {
+        if (completed || length <= 0) {
+            return;
+        }
+        startRun(color, size);
+        for (int i = 0; i < length; i++) {
+            append(runXs[i], runYs[i]);
+        }
+    }
+
+    public void complete() {
+        completed = true;
+    }
+
+    public void clear() {
+        if (!completed) {
+            count = 0;
+            runCount = 0;
+            resetBounds();
+        }
+    }
+
+    public void replacePoints(List<DrawPoint> newPoints) {
+        if (!completed) {
+            count = 0;
+            runCount = 0;
+            resetBounds();
+            addPoints(newPoints);
+        }
+    }
+
+    public boolean eraseCapsule(float x1, float y1, float x2, float y2, float radius) {
+        if (completed) {
+            return false;
+        }
+        Stroke result = erasedCapsule(x1, y1, x2, y2, radius);
+        if (result == null) {
+            return false;
+        }
+        xs = result.xs;
+        ys = result.ys;
+        count = result.count;
+        runStarts = result.runStarts;
+        runColors = result.runColors;
+        runSizes = result.runSizes;
+        runCount = result.runCount;
+        minX = result.minX;
+        minY = result.minY;
+        maxX = result.maxX;
+        maxY = result.maxY;
+        chunkBounds = result.chunkBounds;
+        bounds = null;
+        version++;
+        return true;
+    }
+
+    public Stroke erasedCapsule(float x1, float y1, float x2, float y2, float radius) {
+        Bounds strokeBounds = getBounds();
+        float reach = radius + maxRunSize() / 2.0f;
+        Bounds capsuleBounds = new Bounds(
+                Math.min(x1, x2) - reach, Math.min(y1, y2) - reach,
+                Math.max(x1, x2) + reach, Math.max(y1, y2) + reach
+        );
+        if (strokeBounds == null || !strokeBounds.intersects(capsuleBounds)) {
+            return null;
+        }
+
+        int firstChunk = -1;
+        int lastChunk = -1;
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            if (chunkIntersects(chunk, capsuleBounds)) {
+                firstChunk = firstChunk < 0 ? chunk : firstChunk;
+                lastChunk = chunk;
+            }
+        }
+        if (firstChunk < 0) {
+            return null;
+        }
+
+        int from = firstChunk * CHUNK_SIZE;
+        int to = Math.min(count, (lastChunk + 1) * CHUNK_SIZE);
+        Capsule capsule = new Capsule(x1, y1, x2, y2);
+        if (!touches(from, to, capsule, radius, capsuleBounds)) {
+            return null;
+        }
+
+        Stroke result = new Stroke();
+        result.ensureCapacity(count + 4);
+        for (int run = 0; run < runCount; run++) {
+            capsule.radius = radius + runSizes[run] / 2.0f;
+            eraseRun(run, from, to, capsule, capsuleBounds, result);
+        }
+        return result;
+    }
+
+    public static List<DrawPoint> interpolatePoints(int x1, int y1, int x2, int y2, int color, float size) {
+        List<DrawPoint> interpolated = new ArrayList<>();
+
+        int dx = Math.abs(x2 - x1);
+        int dy = Math.abs(y2 - y1);
+        int steps = Math.max(Math.max(dx, dy), 1);
+
+        for (int i = 0; i <= steps; i++) {
+            int x = x1 + (x2 - x1) * i / steps;
+            int y = y1 + (y2 - y1) * i / steps;
+            interpolated.add(new DrawPoint(x, y, color, size));
+        }
+
+        return interpolated;
+    }
+
+    public List<DrawPoint> getPoints() { return toPointStamps(); }
+    public List<DrawPoint> getPointsView() { return Collections.unmodifiableList(toPointStamps()); }
+    public int getPointCount() { return count; }
+    public boolean isCompleted() { return completed; }
+    public boolean isEmpty() { return count == 0; }
+    public int getVersion() { return version; }
+
+    public float getX(int index) { return xs[index]; }
+    public float getY(int index) { return ys[index]; }
+    public int getRunCount() { return runCount; }
+    public int getRunStart(int run) { return runStarts[run]; }
+    public int getRunEnd(int run) { return run + 1 < runCount ? runStarts[run + 1] : count; }
+    public int getRunColor(int run) { return runColors[run]; }
+    public float getRunSize(int run) { return runSizes[run]; }
+
+    public long estimateBytes() {
+        return 64L + (long) xs.length * 8L + (long) runStarts.length * 12L + (long) chunkBounds.length * 4L;
+    }
+
+    public Bounds getBounds() {
+        if (bounds == null && count > 0) {
+            bounds = new Bounds(minX, minY, maxX, maxY);
+        }
+        return bounds;
+    }
+
+    public boolean intersects(Bounds region) {
+        return count > 0 && region.minX() <= maxX && region.maxX() >= minX
+                && region.minY() <= maxY && region.maxY() >= minY;
+    }
+
+    public int getChunkCount() {
+        return count == 0 ? 0 : (count - 1) / CHUNK_SIZE + 1;
+    }
+
+    public boolean chunkIntersects(int chunk, Bounds region) {
+        int offset = chunk * 4;
+        return region.minX() <= chunkBounds[offset + 2] && region.maxX() >= chunkBounds[offset]
+                && region.minY() <= chunkBounds[offset + 3] && region.maxY() >= chunkBounds[offset + 1];
+    }
+
+    public boolean rangeIntersects(int from, int to, Bounds region) {
+        for (int chunk = from / CHUNK_SIZE, last = Math.max(from, to - 1) / CHUNK_SIZE; chunk <= last; chunk++) {
+            if (chunkIntersects(chunk, region)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public DrawPoint getLastPoint() {
+        return count == 0 ? null : pointAt(runCount - 1, count - 1);
+    }
+
+    public DrawPoint getFirstPoint() {
+        return count == 0 ? null : pointAt(0, 0);
+    }
+
+    public Stroke copy() {
+        Stroke copy = new Stroke();
+        copy.xs = Arrays.copyOf(xs, Math.max(count, 1));
+        copy.ys = Arrays.copyOf(ys, Math.max(count, 1));
+        copy.count = count;
+        copy.runStarts = Arrays.copyOf(runStarts, Math.max(runCount, 1));
+        copy.runColors = Arrays.copyOf(runColors, Math.max(runCount, 1));
+        copy.runSizes = Arrays.copyOf(runSizes, Math.max(runCount, 1));
+        copy.runCount = runCount;
+        copyBounds(this, copy);
+        copy.completed = this.completed;
+        return copy;
+    }
+
+    public static Stroke completed(List<DrawPoint> pointStamps) {
+        return new Stroke(pointStamps);
+    }
+
+    private boolean touches(int from, int to, Capsule capsule, float radius, Bounds capsuleBounds) {
+        for (int run = 0; run < runCount; run++) {
+            int start = Math.max(from, runStarts[run]);
+            int end = getRunEnd(run);
+            capsule.radius = radius + runSizes[run] / 2.0f;
+            if (end - runStarts[run] == 1) {
+                if (capsule.clip(xs[runStarts[run]], ys[runStarts[run]], 0.0f, 0.0f)) {
+                    return true;
+                }
+                continue;
+            }
+            for (int i = start; i < Math.min(to, end - 1); i++) {
+                if (chunkIntersects(i / CHUNK_SIZE, capsuleBounds)
+                        && capsule.clip(xs[i], ys[i], xs[i + 1] - xs[i], ys[i + 1] - ys[i])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void eraseRun(int run, int from, int to, Capsule capsule, Bounds capsuleBounds, Stroke result) {
+        int start = runStarts[run];
+        int end = getRunEnd(run);
+        int color = runColors[run];
+        float size = runSizes[run];
+
+        if (end - start == 1) {
+            if (!capsule.clip(xs[start], ys[start], 0.0f, 0.0f)) {
+                result.startRun(color, size);
+                result.appendRange(this, start, end);
+            }
+            return;
+        }
+
+        boolean open = false;
+        int head = Math.min(Math.max(from, start), end - 1);
+        int tail = Math.min(Math.max(to, head), end - 1);
+        if (head > start) {
+            result.startRun(color, size);
+            result.appendRange(this, start, head + 1);
+            open = true;
+        }
+
+        boolean chunkHit = false;
+        for (int i = head; i < tail; i++) {
+            if (i == head || i % CHUNK_SIZE == 0) {
+                chunkHit = chunkIntersects(i / CHUNK_SIZE, capsuleBounds);
+            }
+            float ax = xs[i];
+            float ay = ys[i];
+            float bx = xs[i + 1];
+            float by = ys[i + 1];
+            float dx = bx - ax;
+            float dy = by - ay;
+
+            if (!chunkHit || !capsule.clip(ax, ay, dx, dy)) {
+                if (!open) {
+                    result.startRun(color, size);
+                    result.append(ax, ay);
+                    open = true;
+                }
+                result.append(bx, by);
+                continue;
+            }
+
+            if (capsule.enter > 0.0f) {
+                if (!open) {
+                    result.startRun(color, size);
+                    result.append(ax, ay);
+                }
+                result.append(ax + dx * capsule.enter, ay + dy * capsule.enter);
+            }
+            open = false;
+            if (capsule.exit < 1.0f) {
+                result.startRun(color, size);
+                result.append(ax + dx * capsule.exit, ay + dy * capsule.exit);
+                result.append(bx, by);
+                open = true;
+            }
+        }
+
+        if (tail < end - 1) {
+            if (!open) {
+                result.startRun(color, size);
+                result.appendRange(this, tail, tail + 1);
+            }
+            result.appendRange(this, tail + 1, end);
+        }
+    }
+
+    private void appendPointStamps(List<DrawPoint> stamps) {
+        int index = 0;
+        while (index < stamps.size()) {
+            int end = index + 1;
+            DrawPoint first = stamps.get(index);
+            while (end < stamps.size() && continuesStamp(stamps.get(end - 1), stamps.get(end))) {
+                end++;
+            }
+            startRun(first.color(), first.size());
+            appendReducedStamps(stamps, index, end);
+            index = end;
+        }
+    }
+
+    private void appendReducedStamps(List<DrawPoint> stamps, int start, int end) {
+        DrawPoint anchor = stamps.get(start);
+        DrawPoint last = anchor;
+        append(anchor.x(), anchor.y());
+
+        boolean hasSleeve = false;
+        double low = 0.0;
+        double high = 0.0;
+        for (int i = start + 1; i < end; i++) {
+            DrawPoint point = stamps.get(i);
+            double dx = point.x() - anchor.x();
+            double dy = point.y() - anchor.y();
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance <= STAMP_TOLERANCE) {
+                last = point;
+                continue;
+            }
+
+            double theta = Math.atan2(dy, dx);
+            double spread = Math.asin(Math.min(1.0, STAMP_TOLERANCE / distance));
+            if (hasSleeve) {
+                double mid = (low + high) / 2.0;
+                while (theta - mid > Math.PI) {
+                    theta -= 2.0 * Math.PI;
+                }
+                while (theta - mid < -Math.PI) {
+                    theta += 2.0 * Math.PI;
+                }
+            }
+
+            if (!hasSleeve) {
+                low = theta - spread;
+                high = theta + spread;
+                hasSleeve = true;
+            } else if (theta < low || theta > high) {
+                append(last.x(), last.y());
+                anchor = last;
+                hasSleeve = false;
+                i--;
+                continue;
+            } else {
+                low = Math.max(low, theta - spread);
+                high = Math.min(high, theta + spread);
+            }
+            last = point;
+        }
+
+        if (last != anchor) {
+            append(last.x(), last.y());
+        }
+    }
+
+    private static boolean continuesStamp(DrawPoint previous, DrawPoint next) {
+        return previous.color() == next.color()
+                && previous.size() == next.size()
+                && Math.abs(next.x() - previous.x()) <= 1
+                && Math.abs(next.y() - previous.y()) <= 1;
+    }
+
+    private List<DrawPoint> toPointStamps() {
+        List<DrawPoint> stamps = new ArrayList<>();
+        for (int run = 0; run < runCount; run++) {
+            int color = runColors[run];
+            float size = runSizes[run];
+            int start = runStarts[run];
+            int end = getRunEnd(run);
+            int lastX = Math.round(xs[start]);
+            int lastY = Math.round(ys[start]);
+            stamps.add(new DrawPoint(lastX, lastY, color, size));
+            for (int i = start + 1; i < end; i++) {
+                int x = Math.round(xs[i]);
+                int y = Math.round(ys[i]);
+                List<DrawPoint> segment = interpolatePoints(lastX, lastY, x, y, color, size);
+                stamps.addAll(segment.subList(1, segment.size()));
+                lastX = x;
+                lastY = y;
+            }
+        }
+        return stamps;
+    }
+
+    private float maxRunSize() {
+        float max = 0.0f;
+        for (int run = 0; run < runCount; run++) {
+            max = Math.max(max, runSizes[run]);
+        }
+        return max;
+    }
+
+    private void startRun(int color, float size) {
+        if (runCount == runStarts.length) {
+            int newLength = runStarts.length * 2;
+            runStarts = Arrays.copyOf(runStarts, newLength);
+            runColors = Arrays.copyOf(runColors, newLength);
+            runSizes = Arrays.copyOf(runSizes, newLength);
+        }
+        runStarts[runCount] = count;
+        runColors[runCount] = color;
+        runSizes[runCount] = size;
+        runCount++;
+    }
+
+    private void append(float x, float y) {
+        ensureCapacity(count + 1);
+        xs[count] = Math.round(x * VERTEX_PRECISION) / VERTEX_PRECISION;
+        ys[count] = Math.round(y * VERTEX_PRECISION) / VERTEX_PRECISION;
+        extendBounds(runSizes[runCount - 1] / 2.0f * StrokeGeometry.MITER_LIMIT);
+        count++;
+        bounds = null;
+    }
+
+    private void appendRange(Stroke source, int from, int to) {
+        ensureCapacity(count + to - from);
+        System.arraycopy(source.xs, from, xs, count, to - from);
+        System.arraycopy(source.ys, from, ys, count, to - from);
+        float extent = runSizes[runCount - 1] / 2.0f * StrokeGeometry.MITER_LIMIT;
+        for (int i = from; i < to; i++) {
+            extendBounds(extent);
+            count++;
+        }
+        bounds = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > xs.length) {
+            int newLength = Math.max(capacity, xs.length + (xs.length >> 1) + 1);
+            xs = Arrays.copyOf(xs, newLength);
+            ys = Arrays.copyOf(ys, newLength);
+        }
+    }
+
+    private void extendBounds(float extent) {
+        float x = xs[count];
+        float y = ys[count];
+        float left = x - extent;
+        float top = y - extent;
+        float right = x + extent;
+        float bottom = y + extent;
+        minX = Math.min(minX, left);
+        minY = Math.min(minY, top);
+        maxX = Math.max(maxX, right);
+        maxY = Math.max(maxY, bottom);
+
+        int chunk = count / CHUNK_SIZE;
+        if (chunk * 4 == chunkBounds.length) {
+            chunkBounds = Arrays.copyOf(chunkBounds, chunkBounds.length * 2);
+        }
+        if (count % CHUNK_SIZE == 0) {
+            chunkBounds[chunk * 4] = left;
+            chunkBounds[chunk * 4 + 1] = top;
+            chunkBounds[chunk * 4 + 2] = right;
+            chunkBounds[chunk * 4 + 3] = bottom;
+            if (chunk > 0) {
+                extendChunk(chunk - 1, left, top, right, bottom);
+            }
+        } else {
+            extendChunk(chunk, left, top, right, bottom);
+        }
+    }
+
+    private void extendChunk(int chunk, float left, float top, float right, float bottom) {
+        int offset = chunk * 4;
+        chunkBounds[offset] = Math.min(chunkBounds[offset], left);
+        chunkBounds[offset + 1] = Math.min(chunkBounds[offset + 1], top);
+        chunkBounds[offset + 2] = Math.max(chunkBounds[offset + 2], right);
+        chunkBounds[offset + 3] = Math.max(chunkBounds[offset + 3], bottom);
+    }
+
+    private void resetBounds() {
+        minX = Float.POSITIVE_INFINITY;
+        minY = Float.POSITIVE_INFINITY;
+        maxX = Float.NEGATIVE_INFINITY;
+        maxY = Float.NEGATIVE_INFINITY;
+        bounds = null;
+    }
+
+    private static void copyBounds(Stroke from, Stroke to) {
+        to.minX = from.minX;
+        to.minY = from.minY;
+        to.maxX = from.maxX;
+        to.maxY = from.maxY;
+        to.chunkBounds = Arrays.copyOf(from.chunkBounds, Math.max(4, from.getChunkCount() * 4));
+        to.bounds = null;
+    }
+
+    private DrawPoint pointAt(int run, int index) {
+        return new DrawPoint(Math.round(xs[index]), Math.round(ys[index]), runColors[run], runSizes[run]);
+    }
+
+    private static final class Capsule {
+        private final float x1;
+        private final float y1;
+        private final float axisX;
+        private final float axisY;
+        private final float length;
+        private float radius;
+        private float enter;
+        private float exit;
+
+        private Capsule(float x1, float y1, float x2, float y2) {
+            this.x1 = x1;
+            this.y1 = y1;
+            float dx = x2 - x1;
+            float dy = y2 - y1;
+            this.length = (float) Math.sqrt(dx * dx + dy * dy);
+            this.axisX = length > 0.0f ? dx / length : 1.0f;
+            this.axisY = length > 0.0f ? dy / length : 0.0f;
+        }
+
+        private boolean clip(float ax, float ay, float dx, float dy) {
+            float fromX = ax - x1;
+            float fromY = ay - y1;
+            float u = fromX * axisX + fromY * axisY;
+            float v = -fromX * axisY + fromY * axisX;
+            float du = dx * axisX + dy * axisY;
+            float dv = -dx * axisY + dy * axisX;
+
+            float low = Float.POSITIVE_INFINITY;
+            float high = Float.NEGATIVE_INFINITY;
+
+            float a = du * du + dv * dv;
+            for (int end = 0; end < 2; end++) {
+                float cu = u - (end == 0 ? 0.0f : length);
+                float b = 2.0f * (cu * du + v * dv);
+                float c = cu * cu + v * v - radius * radius;
+                if (a == 0.0f) {
+                    if (c <= 0.0f) {
+                        low = 0.0f;
+                        high = 1.0f;
+                    }
+                    continue;
+                }
+                float discriminant = b * b - 4.0f * a * c;
+                if (discriminant > 0.0f) {
+                    float root = (float) Math.sqrt(discriminant);
+                    low = Math.min(low, (-b - root) / (2.0f * a));
+                    high = Math.max(high, (-b + root) / (2.0f * a));
+                }
+            }
+
+            if (length > 0.0f) {
+                float slabLow = Float.NEGATIVE_INFINITY;
+                float slabHigh = Float.POSITIVE_INFINITY;
+                boolean inside = true;
+                for (int axis = 0; axis < 2 && inside; axis++) {
+                    float p = axis == 0 ? u : v;
+                    float q = axis == 0 ? du : dv;
+                    float min = axis == 0 ? 0.0f : -radius;
+                    float max = axis == 0 ? length : radius;
+                    if (q == 0.0f) {
+                        inside = p >= min && p <= max;
+                        continue;
+                    }
+                    float t0 = (min - p) / q;
+                    float t1 = (max - p) / q;
+                    slabLow = Math.max(slabLow, Math.min(t0, t1));
+                    slabHigh = Math.min(slabHigh, Math.max(t0, t1));
+                }
+                if (inside && slabLow <= slabHigh) {
+                    low = Math.min(low, slabLow);
+                    high = Math.max(high, slabHigh);
+                }
+            }
+
+            if (high <= 0.0f || low >= 1.0f || low > high) {
+                return false;
+            }
+            enter = low;
+            exit = high;
+            return true;
+        }
+    }
+}
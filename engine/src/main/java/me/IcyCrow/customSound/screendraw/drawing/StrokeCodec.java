@@ -0,0 +1,95 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public final class StrokeCodec {
+    private static final int MAX_RUN_VERTICES = 1 << 24;
+
+    private StrokeCodec() {
+    }
+
+    public static void write(DataOutput out, Stroke stroke) throws IOException {
+        writeVarInt(out, stroke.getRunCount());
+        int lastX = 0;
+        int lastY = 0;
+        for (int run = 0; run < stroke.getRunCount(); run++) {
+            int start = stroke.getRunStart(run);
+            int end = stroke.getRunEnd(run);
+            out.writeInt(stroke.getRunColor(run));
+            out.writeFloat(stroke.getRunSize(run));
+            writeVarInt(out, end - start);
+            for (int i = start; i < end; i++) {
+                int x = quantize(stroke.getX(i));
+                int y = quantize(stroke.getY(i));
+                writeVarInt(out, zigZag(x - lastX));
+                writeVarInt(out, zigZag(y - lastY));
+                lastX = x;
+                lastY = y;
+            }
+        }
+    }
+
+    public static Stroke read(DataInput in) throws IOException {
+        Stroke stroke = new Stroke();
+        int runCount = readVarInt(in);
+        int lastX = 0;
+        int lastY = 0;
+        float[] xs = new float[16];
+        float[] ys = new float[16];
+        for (int run = 0; run < runCount; run++) {
+            int color = in.readInt();
+            float size = in.readFloat();
+            int length = readVarInt(in);
+            if (length > MAX_RUN_VERTICES) {
+                throw new IOException("Stroke run too long: " + length);
+            }
+            if (length > xs.length) {
+                xs = new float[length];
+                ys = new float[length];
+            }
+            for (int i = 0; i < length; i++) {
+                lastX += unZigZag(readVarInt(in));
+                lastY += unZigZag(readVarInt(in));
+                xs[i] = lastX / Stroke.VERTEX_PRECISION;
+                ys[i] = lastY / Stroke.VERTEX_PRECISION;
+            }
+            stroke.addRun(color, size, xs, ys, length);
+        }
+        stroke.complete();
+        return stroke;
+    }
+
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int quantize(float coordinate) {
+        return Math.round(coordinate * Stroke.VERTEX_PRECISION);
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
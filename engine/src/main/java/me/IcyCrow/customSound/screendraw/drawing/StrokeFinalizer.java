@@ -0,0 +1,70 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class StrokeFinalizer {
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ScreenDraw Stroke Finalizer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor executor;
+    private final ArrayDeque<CompletableFuture<Result>> pending = new ArrayDeque<>();
+
+    public StrokeFinalizer(Executor executor) {
+        this.executor = executor;
+    }
+
+    public static StrokeFinalizer background() {
+        return new StrokeFinalizer(WORKER);
+    }
+
+    public static StrokeFinalizer synchronous() {
+        return new StrokeFinalizer(Runnable::run);
+    }
+
+    public void submit(Stroke raw, float simplifyTolerance, StrokeSpatialIndex index) {
+        pending.addLast(CompletableFuture.supplyAsync(() -> finish(raw, simplifyTolerance, index), executor));
+    }
+
+    public Result poll() {
+        CompletableFuture<Result> next = pending.peekFirst();
+        if (next == null || !next.isDone()) {
+            return null;
+        }
+        pending.removeFirst();
+        return next.join();
+    }
+
+    public void awaitAll() {
+        for (CompletableFuture<Result> future : pending) {
+            future.join();
+        }
+    }
+
+    public boolean isIdle() {
+        return pending.isEmpty();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    private static Result finish(Stroke raw, float simplifyTolerance, StrokeSpatialIndex index) {
+        long started = System.nanoTime();
+        Stroke simplified = StrokeSimplifier.simplify(raw, simplifyTolerance);
+        if (simplified != raw) {
+            simplified.complete();
+        }
+        long simplifyNanos = System.nanoTime() - started;
+        return new Result(raw, simplified, index.cellsOf(simplified), simplifyNanos);
+    }
+
+    public record Result(Stroke raw, Stroke finalized, long[] cells, long simplifyNanos) {
+    }
+}
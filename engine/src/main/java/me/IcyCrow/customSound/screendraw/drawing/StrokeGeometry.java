@@ -0,0 +1,165 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public final class StrokeGeometry {
+    public static final float MITER_LIMIT = 2.0f;
+    private static final float EPSILON = 1.0e-4f;
+
+    private StrokeGeometry() {
+    }
+
+    public interface VertexSink {
+        void vertex(float x, float y, int color);
+    }
+
+    public static int tessellate(Stroke stroke, VertexSink sink) {
+        return tessellate(stroke, null, sink);
+    }
+
+    public static int tessellate(Stroke stroke, Bounds visible, VertexSink sink) {
+        if (visible != null && !stroke.intersects(visible)) {
+            return 0;
+        }
+        int vertices = 0;
+        for (int run = 0; run < stroke.getRunCount(); run++) {
+            int color = stroke.getRunColor(run);
+            if (((color >>> 24) & 0xFF) == 0) {
+                continue;
+            }
+            int start = stroke.getRunStart(run);
+            int end = stroke.getRunEnd(run);
+            if (visible != null && !stroke.rangeIntersects(start, end, visible)) {
+                continue;
+            }
+            vertices += tessellateRun(stroke, start, end, color, stroke.getRunSize(run) / 2.0f, visible, sink);
+        }
+        return vertices;
+    }
+
+    private static int tessellateRun(Stroke stroke, int start, int end, int color, float half,
+                                     Bounds visible, VertexSink sink) {
+
+        int first = start;
+        int last = end - 1;
+        while (last > first && isSamePoint(stroke, last, last - 1)) {
+            last--;
+        }
+        if (last == first) {
+            if (visible != null && !stroke.chunkIntersects(first / Stroke.CHUNK_SIZE, visible)) {
+                return 0;
+            }
+            float x = stroke.getX(first);
+            float y = stroke.getY(first);
+            return quad(sink, color,
+                    x - half, y + half, x + half, y + half,
+                    x + half, y - half, x - half, y - half);
+        }
+
+        int vertices = 0;
+        float prevX = stroke.getX(first);
+        float prevY = stroke.getY(first);
+        int next = nextDistinct(stroke, first, last);
+        float dirX = stroke.getX(next) - prevX;
+        float dirY = stroke.getY(next) - prevY;
+        float length = (float) Math.sqrt(dirX * dirX + dirY * dirY);
+        dirX /= length;
+        dirY /= length;
+
+        float capX = prevX - dirX * half;
+        float capY = prevY - dirY * half;
+        float leftX = capX - dirY * half;
+        float leftY = capY + dirX * half;
+        float rightX = capX + dirY * half;
+        float rightY = capY - dirX * half;
+
+        int current = next;
+        while (true) {
+            float x = stroke.getX(current);
+            float y = stroke.getY(current);
+            boolean emit = visible == null || stroke.chunkIntersects((current - 1) / Stroke.CHUNK_SIZE, visible);
+
+            if (current == last) {
+                float endX = x + dirX * half;
+                float endY = y + dirY * half;
+                float endLeftX = endX - dirY * half;
+                float endLeftY = endY + dirX * half;
+                float endRightX = endX + dirY * half;
+                float endRightY = endY - dirX * half;
+                if (emit) {
+                    vertices += quad(sink, color, leftX, leftY, rightX, rightY, endRightX, endRightY, endLeftX, endLeftY);
+                }
+                return vertices;
+            }
+
+            int following = nextDistinct(stroke, current, last);
+            float outX = stroke.getX(following) - x;
+            float outY = stroke.getY(following) - y;
+            float outLength = (float) Math.sqrt(outX * outX + outY * outY);
+            outX /= outLength;
+            outY /= outLength;
+
+            float miterX = -(dirY + outY);
+            float miterY = dirX + outX;
+            float miterLength = (float) Math.sqrt(miterX * miterX + miterY * miterY);
+            float cos = miterLength > EPSILON ? (miterX * -dirY + miterY * dirX) / miterLength : 0.0f;
+
+            if (cos > 1.0f / MITER_LIMIT) {
+                float scale = half / (cos * miterLength);
+                float joinLeftX = x + miterX * scale;
+                float joinLeftY = y + miterY * scale;
+                float joinRightX = x - miterX * scale;
+                float joinRightY = y - miterY * scale;
+                if (emit) {
+                    vertices += quad(sink, color, leftX, leftY, rightX, rightY, joinRightX, joinRightY, joinLeftX, joinLeftY);
+                }
+                leftX = joinLeftX;
+                leftY = joinLeftY;
+                rightX = joinRightX;
+                rightY = joinRightY;
+            } else {
+                float inLeftX = x - dirY * half;
+                float inLeftY = y + dirX * half;
+                float inRightX = x + dirY * half;
+                float inRightY = y - dirX * half;
+                if (emit) {
+                    vertices += quad(sink, color, leftX, leftY, rightX, rightY, inRightX, inRightY, inLeftX, inLeftY);
+                }
+
+                leftX = x - outY * half;
+                leftY = y + outX * half;
+                rightX = x + outY * half;
+                rightY = y - outX * half;
+                if (emit) {
+                    vertices += quad(sink, color, inLeftX, inLeftY, inRightX, inRightY, rightX, rightY, leftX, leftY);
+                }
+            }
+
+            dirX = outX;
+            dirY = outY;
+            current = following;
+        }
+    }
+
+    private static int nextDistinct(Stroke stroke, int index, int last) {
+        int next = index + 1;
+        while (next < last && isSamePoint(stroke, next, index)) {
+            next++;
+        }
+        return next;
+    }
+
+    private static boolean isSamePoint(Stroke stroke, int a, int b) {
+        return Math.abs(stroke.getX(a) - stroke.getX(b)) < EPSILON && Math.abs(stroke.getY(a) - stroke.getY(b)) < EPSILON;
+    }
+
+    private static int quad(VertexSink sink, int color,
+                            float x1, float y1, float x2, float y2,
+                            float x3, float y3, float x4, float y4) {
+        sink.vertex(x1, y1, color);
+        sink.vertex(x2, y2, color);
+        sink.vertex(x3, y3, color);
+        sink.vertex(x1, y1, color);
+        sink.vertex(x3, y3, color);
+        sink.vertex(x4, y4, color);
+        return 6;
+    }
+}
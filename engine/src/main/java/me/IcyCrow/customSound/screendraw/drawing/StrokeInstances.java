@@ -0,0 +1,84 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.nio.ByteBuffer;
+
+public final class StrokeInstances {
+    public static final int INSTANCE_BYTES = 44;
+    public static final int VERTICES_PER_INSTANCE = 12;
+    public static final int FLAG_START_CAP = 1;
+    public static final int FLAG_END_CAP = 2;
+    public static final int FLAG_POINT = 4;
+    private static final float EPSILON = 1.0e-4f;
+
+    private StrokeInstances() {
+    }
+
+    public static int maxInstances(Stroke stroke) {
+        return stroke.getPointCount();
+    }
+
+    public static int write(Stroke stroke, ByteBuffer out) {
+        int instances = 0;
+        for (int run = 0; run < stroke.getRunCount(); run++) {
+            int color = stroke.getRunColor(run);
+            if (((color >>> 24) & 0xFF) == 0) {
+                continue;
+            }
+            instances += writeRun(stroke, stroke.getRunStart(run), stroke.getRunEnd(run), color,
+                    stroke.getRunSize(run) / 2.0f, out);
+        }
+        return instances;
+    }
+
+    private static int writeRun(Stroke stroke, int start, int end, int color, float half, ByteBuffer out) {
+        int first = start;
+        int last = end - 1;
+        while (last > first && isSamePoint(stroke, last, last - 1)) {
+            last--;
+        }
+        if (last == first) {
+            put(out, stroke, first, first, first, first, color, half, FLAG_POINT);
+            return 1;
+        }
+
+        int instances = 0;
+        int previous = first;
+        int from = first;
+        int to = nextDistinct(stroke, first, last);
+        while (true) {
+            int following = to == last ? to : nextDistinct(stroke, to, last);
+            int flags = (from == first ? FLAG_START_CAP : 0) | (to == last ? FLAG_END_CAP : 0);
+            put(out, stroke, previous, from, to, following, color, half, flags);
+            instances++;
+            if (to == last) {
+                return instances;
+            }
+            previous = from;
+            from = to;
+            to = following;
+        }
+    }
+
+    private static void put(ByteBuffer out, Stroke stroke, int p0, int p1, int p2, int p3,
+                            int color, float half, int flags) {
+        out.putFloat(stroke.getX(p0)).putFloat(stroke.getY(p0));
+        out.putFloat(stroke.getX(p1)).putFloat(stroke.getY(p1));
+        out.putFloat(stroke.getX(p2)).putFloat(stroke.getY(p2));
+        out.putFloat(stroke.getX(p3)).putFloat(stroke.getY(p3));
+        out.put((byte) (color >>> 16)).put((byte) (color >>> 8)).put((byte) color).put((byte) (color >>> 24));
+        out.putFloat(half);
+        out.putFloat(flags);
+    }
+
+    private static int nextDistinct(Stroke stroke, int index, int last) {
+        int next = index + 1;
+        while (next < last && isSamePoint(stroke, next, index)) {
+            next++;
+        }
+        return next;
+    }
+
+    private static boolean isSamePoint(Stroke stroke, int a, int b) {
+        return Math.abs(stroke.getX(a) - stroke.getX(b)) < EPSILON && Math.abs(stroke.getY(a) - stroke.getY(b)) < EPSILON;
+    }
+}
@@ -0,0 +1,177 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+public final class StrokeList implements Iterable<Stroke> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final StrokeList EMPTY = new StrokeList(0, 0, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+
+    private StrokeList(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    public static StrokeList empty() {
+        return EMPTY;
+    }
+
+    public static StrokeList of(List<Stroke> strokes) {
+        if (strokes.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<Object[]> nodes = new ArrayList<>();
+        for (int start = 0; start < strokes.size(); start += WIDTH) {
+            int end = Math.min(start + WIDTH, strokes.size());
+            nodes.add(strokes.subList(start, end).toArray());
+        }
+
+        int shift = 0;
+        while (nodes.size() > 1) {
+            List<Object[]> parents = new ArrayList<>();
+            for (int start = 0; start < nodes.size(); start += WIDTH) {
+                int end = Math.min(start + WIDTH, nodes.size());
+                parents.add(nodes.subList(start, end).toArray());
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+        return new StrokeList(strokes.size(), shift, nodes.getFirst());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Stroke get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (Stroke) node[index & MASK];
+    }
+
+    public StrokeList append(Stroke stroke) {
+        if (size == 1 << (shift + BITS)) {
+            Object[] newRoot = {root, newPath(shift, stroke)};
+            return new StrokeList(size + 1, shift + BITS, newRoot);
+        }
+        return new StrokeList(size + 1, shift, appendInto(shift, root, stroke, size));
+    }
+
+    public StrokeList set(int index, Stroke stroke) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new StrokeList(size, shift, setInto(shift, root, index, stroke));
+    }
+
+    public StrokeList filter(Predicate<Stroke> keep) {
+        List<Stroke> kept = new ArrayList<>(size);
+        for (Stroke stroke : this) {
+            if (keep.test(stroke)) {
+                kept.add(stroke);
+            }
+        }
+        return kept.size() == size ? this : of(kept);
+    }
+
+    public int indexOf(Stroke stroke) {
+        for (int i = 0; i < size; i++) {
+            if (get(i) == stroke) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(Stroke stroke) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (get(i) == stroke) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public List<Stroke> asList() {
+        return new ListView();
+    }
+
+    @Override
+    public Iterator<Stroke> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Stroke next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    private static Object[] appendInto(int level, Object[] node, Stroke stroke, int index) {
+        int slot = (index >>> level) & MASK;
+        Object[] copy = Arrays.copyOf(node, Math.max(node.length, slot + 1));
+        if (level == 0) {
+            copy[slot] = stroke;
+        } else if (slot < node.length) {
+            copy[slot] = appendInto(level - BITS, (Object[]) node[slot], stroke, index);
+        } else {
+            copy[slot] = newPath(level - BITS, stroke);
+        }
+        return copy;
+    }
+
+    private static Object[] setInto(int level, Object[] node, int index, Stroke stroke) {
+        int slot = (index >>> level) & MASK;
+        Object[] copy = node.clone();
+        copy[slot] = level == 0 ? stroke : setInto(level - BITS, (Object[]) node[slot], index, stroke);
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Stroke stroke) {
+        return level == 0 ? new Object[]{stroke} : new Object[]{newPath(level - BITS, stroke)};
+    }
+
+    private final class ListView extends AbstractList<Stroke> implements RandomAccess {
+        @Override
+        public Stroke get(int index) {
+            return StrokeList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
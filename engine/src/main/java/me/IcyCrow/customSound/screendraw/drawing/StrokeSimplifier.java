@@ -0,0 +1,85 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.Arrays;
+
+public final class StrokeSimplifier {
+    private StrokeSimplifier() {
+    }
+
+    public static Stroke simplify(Stroke stroke, float tolerance) {
+        if (tolerance <= 0.0f || stroke.getPointCount() < 3) {
+            return stroke;
+        }
+
+        Stroke result = new Stroke();
+        float toleranceSquared = tolerance * tolerance;
+        boolean[] keep = new boolean[stroke.getPointCount()];
+        int[] stack = new int[64];
+        float[] xs = new float[16];
+        float[] ys = new float[16];
+        for (int run = 0; run < stroke.getRunCount(); run++) {
+            int start = stroke.getRunStart(run);
+            int end = stroke.getRunEnd(run) - 1;
+            keep[start] = true;
+            keep[end] = true;
+
+            int top = 0;
+            stack[top++] = start;
+            stack[top++] = end;
+            while (top > 0) {
+                int last = stack[--top];
+                int first = stack[--top];
+                int farthest = -1;
+                float farthestDistance = toleranceSquared;
+                for (int i = first + 1; i < last; i++) {
+                    float distance = distanceSquared(stroke, i, first, last);
+                    if (distance > farthestDistance) {
+                        farthest = i;
+                        farthestDistance = distance;
+                    }
+                }
+                if (farthest < 0) {
+                    continue;
+                }
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+
+            int length = 0;
+            for (int i = start; i <= end; i++) {
+                if (!keep[i]) {
+                    continue;
+                }
+                if (length == xs.length) {
+                    xs = Arrays.copyOf(xs, length * 2);
+                    ys = Arrays.copyOf(ys, length * 2);
+                }
+                xs[length] = stroke.getX(i);
+                ys[length] = stroke.getY(i);
+                length++;
+            }
+            result.addRun(stroke.getRunColor(run), stroke.getRunSize(run), xs, ys, length);
+        }
+        return result;
+    }
+
+    private static float distanceSquared(Stroke stroke, int index, int first, int last) {
+        float ax = stroke.getX(first);
+        float ay = stroke.getY(first);
+        float dx = stroke.getX(last) - ax;
+        float dy = stroke.getY(last) - ay;
+        float px = stroke.getX(index) - ax;
+        float py = stroke.getY(index) - ay;
+        float lengthSquared = dx * dx + dy * dy;
+        float t = lengthSquared > 0.0f ? Math.max(0.0f, Math.min(1.0f, (px * dx + py * dy) / lengthSquared)) : 0.0f;
+        float ex = px - dx * t;
+        float ey = py - dy * t;
+        return ex * ex + ey * ey;
+    }
+}
@@ -0,0 +1,215 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class StrokeSpatialIndex {
+    private static final int DEFAULT_CELL_SIZE = 64;
+
+    private final int cellSize;
+    private final Map<Long, List<Stroke>> cells = new HashMap<>();
+    private final Map<Stroke, long[]> strokeCells = new IdentityHashMap<>();
+    private final Set<Stroke> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public StrokeSpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public StrokeSpatialIndex(int cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+    }
+
+    public void add(Stroke stroke) {
+        if (stroke.isEmpty() || strokeCells.containsKey(stroke)) {
+            return;
+        }
+        add(stroke, cellsOf(stroke));
+    }
+
+    public void add(Stroke stroke, long[] keys) {
+        if (stroke.isEmpty() || strokeCells.containsKey(stroke)) {
+            return;
+        }
+        for (long key : keys) {
+            cells.computeIfAbsent(key, ignored -> new ArrayList<>(4)).add(stroke);
+        }
+        strokeCells.put(stroke, keys);
+    }
+
+    public long[] cellsOf(Stroke stroke) {
+        CellSet keys = new CellSet();
+        for (int run = 0; run < stroke.getRunCount(); run++) {
+            float extent = stroke.getRunSize(run) / 2.0f * StrokeGeometry.MITER_LIMIT;
+            int start = stroke.getRunStart(run);
+            int end = stroke.getRunEnd(run);
+            if (end - start == 1) {
+                collectCells(keys, stroke.getX(start), stroke.getY(start), stroke.getX(start), stroke.getY(start), extent);
+                continue;
+            }
+            for (int i = start; i < end - 1; i++) {
+                collectCells(keys, stroke.getX(i), stroke.getY(i), stroke.getX(i + 1), stroke.getY(i + 1), extent);
+            }
+        }
+        return keys.toArray();
+    }
+
+    public void remove(Stroke stroke) {
+        long[] keys = strokeCells.remove(stroke);
+        if (keys == null) {
+            return;
+        }
+        for (long key : keys) {
+            List<Stroke> bucket = cells.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            for (int i = bucket.size() - 1; i >= 0; i--) {
+                if (bucket.get(i) == stroke) {
+                    bucket.remove(i);
+                    break;
+                }
+            }
+            if (bucket.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    public void update(Stroke stroke) {
+        remove(stroke);
+        add(stroke);
+    }
+
+    public void rebuild(Collection<Stroke> strokes) {
+        clear();
+        for (Stroke stroke : strokes) {
+            add(stroke);
+        }
+    }
+
+    public void clear() {
+        cells.clear();
+        strokeCells.clear();
+    }
+
+    public void query(Bounds region, List<Stroke> result) {
+        int minCellX = cellOf(region.minX());
+        int minCellY = cellOf(region.minY());
+        int maxCellX = cellOf(region.maxX());
+        int maxCellY = cellOf(region.maxY());
+
+        result.clear();
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                List<Stroke> bucket = cells.get(key(cellX, cellY));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Stroke stroke : bucket) {
+                    if (seen.add(stroke)) {
+                        result.add(stroke);
+                    }
+                }
+            }
+        }
+        seen.clear();
+    }
+
+    public boolean contains(Stroke stroke) {
+        return strokeCells.containsKey(stroke);
+    }
+
+    public int size() {
+        return strokeCells.size();
+    }
+
+    private void collectCells(CellSet keys, float x1, float y1, float x2, float y2, float extent) {
+        int minCellY = cellOf(Math.min(y1, y2) - extent);
+        int maxCellY = cellOf(Math.max(y1, y2) + extent);
+        double dx = (double) x2 - x1;
+        double dy = (double) y2 - y1;
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            double fromX = Math.min(x1, x2);
+            double toX = Math.max(x1, x2);
+            if (dy != 0.0) {
+                double enter = ((double) cellY * cellSize - extent - y1) / dy;
+                double leave = ((double) (cellY + 1) * cellSize + extent - y1) / dy;
+                double first = Math.max(0.0, Math.min(enter, leave));
+                double last = Math.min(1.0, Math.max(enter, leave));
+                fromX = Math.min(x1 + dx * first, x1 + dx * last);
+                toX = Math.max(x1 + dx * first, x1 + dx * last);
+            }
+            int minCellX = cellOf((float) (fromX - extent));
+            int maxCellX = cellOf((float) (toX + extent));
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                keys.add(key(cellX, cellY));
+            }
+        }
+    }
+
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static final class CellSet {
+        private long[] keys = new long[16];
+        private boolean[] used = new boolean[16];
+        private int size;
+
+        void add(long key) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+
+        long[] toArray() {
+            long[] packed = new long[size];
+            int index = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (used[slot]) {
+                    packed[index++] = keys[slot];
+                }
+            }
+            return packed;
+        }
+
+        private void grow() {
+            long[] previousKeys = keys;
+            boolean[] previousUsed = used;
+            keys = new long[previousKeys.length * 2];
+            used = new boolean[previousKeys.length * 2];
+            size = 0;
+            for (int slot = 0; slot < previousKeys.length; slot++) {
+                if (previousUsed[slot]) {
+                    add(previousKeys[slot]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & mask;
+        }
+    }
+}
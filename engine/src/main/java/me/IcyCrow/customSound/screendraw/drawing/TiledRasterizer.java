@@ -0,0 +1,359 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.DoubleConsumer;
+
+public final class TiledRasterizer {
+    public static final int TILE_SIZE = 128;
+
+    private static final int POLYGON_CAPACITY = 32;
+    private static final float SOLID_COVERAGE = 1.0f - 1.0f / 512.0f;
+    private static final ThreadLocal<TileScratch> SCRATCH = ThreadLocal.withInitial(TileScratch::new);
+
+    private final ForkJoinPool pool;
+
+    public TiledRasterizer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TiledRasterizer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public interface RowSink {
+        void row(int[] argb, int offset) throws IOException;
+    }
+
+    public void rasterize(List<Stroke> strokes, int width, int height, float scale,
+                          RowSink sink, DoubleConsumer progress) throws IOException {
+        rasterize(strokes, 0.0f, 0.0f, width, height, scale, sink, progress);
+    }
+
+    public void rasterize(List<Stroke> strokes, float worldX, float worldY, int width, int height, float scale,
+                          RowSink sink, DoubleConsumer progress) throws IOException {
+        int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+        int[][] bins = binStrokes(strokes, worldX, worldY, scale, columns, rows);
+        int[] band = new int[width * TILE_SIZE];
+
+        for (int tileRow = 0; tileRow < rows; tileRow++) {
+            int bandY = tileRow * TILE_SIZE;
+            int bandHeight = Math.min(TILE_SIZE, height - bandY);
+            Arrays.fill(band, 0);
+
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(columns);
+            for (int column = 0; column < columns; column++) {
+                int[] bin = bins[tileRow * columns + column];
+                if (bin.length == 0) {
+                    continue;
+                }
+                int tileX = column * TILE_SIZE;
+                int tileWidth = Math.min(TILE_SIZE, width - tileX);
+                tasks.add(ForkJoinTask.adapt(() -> renderTile(strokes, bin, worldX, worldY, scale,
+                        tileX, bandY, tileWidth, bandHeight, band, width)));
+            }
+            if (!tasks.isEmpty()) {
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            }
+
+            for (int y = 0; y < bandHeight; y++) {
+                sink.row(band, y * width);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Export cancelled");
+            }
+            progress.accept((double) (tileRow + 1) / rows);
+        }
+    }
+
+    private static int[][] binStrokes(List<Stroke> strokes, float worldX, float worldY, float scale,
+                                      int columns, int rows) {
+        int tiles = columns * rows;
+        int[][] bins = new int[tiles][];
+        int[] counts = new int[tiles];
+        Arrays.fill(bins, new int[0]);
+
+        for (int index = 0; index < strokes.size(); index++) {
+            Bounds bounds = strokes.get(index).getBounds();
+            if (bounds == null) {
+                continue;
+            }
+            int minColumn = Math.max(0, (int) Math.floor((bounds.minX() - worldX) * scale / TILE_SIZE));
+            int minRow = Math.max(0, (int) Math.floor((bounds.minY() - worldY) * scale / TILE_SIZE));
+            int maxColumn = Math.min(columns - 1, (int) Math.floor((bounds.maxX() - worldX) * scale / TILE_SIZE));
+            int maxRow = Math.min(rows - 1, (int) Math.floor((bounds.maxY() - worldY) * scale / TILE_SIZE));
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    int tile = row * columns + column;
+                    if (counts[tile] == bins[tile].length) {
+                        bins[tile] = Arrays.copyOf(bins[tile], Math.max(4, counts[tile] * 2));
+                    }
+                    bins[tile][counts[tile]++] = index;
+                }
+            }
+        }
+
+        for (int tile = 0; tile < tiles; tile++) {
+            if (counts[tile] != bins[tile].length) {
+                bins[tile] = Arrays.copyOf(bins[tile], counts[tile]);
+            }
+        }
+        return bins;
+    }
+
+    private static void renderTile(List<Stroke> strokes, int[] bin, float worldX, float worldY, float scale,
+                                   int tileX, int tileY, int tileWidth, int tileHeight,
+                                   int[] band, int bandWidth) {
+        TileScratch scratch = SCRATCH.get();
+        scratch.begin(tileX, tileY, tileWidth, tileHeight, worldX, worldY, scale);
+        Bounds tile = new Bounds(worldX + (tileX - 1) / scale, worldY + (tileY - 1) / scale,
+                worldX + (tileX + tileWidth + 1) / scale, worldY + (tileY + tileHeight + 1) / scale);
+        for (int index : bin) {
+            StrokeGeometry.tessellate(strokes.get(index), tile, scratch);
+            scratch.flushLayer();
+        }
+        scratch.resolve(band, tileX, bandWidth);
+    }
+
+    private static final class TileScratch implements StrokeGeometry.VertexSink {
+        private final float[] red = new float[TILE_SIZE * TILE_SIZE];
+        private final float[] green = new float[TILE_SIZE * TILE_SIZE];
+        private final float[] blue = new float[TILE_SIZE * TILE_SIZE];
+        private final float[] alpha = new float[TILE_SIZE * TILE_SIZE];
+        private final float[] coverage = new float[TILE_SIZE * TILE_SIZE];
+        private final float[] triangle = new float[6];
+        private final float[] rowPolygon = new float[POLYGON_CAPACITY];
+        private final float[] columnPolygon = new float[POLYGON_CAPACITY];
+        private final float[] scratchPolygon = new float[POLYGON_CAPACITY];
+        private final float[] span = new float[4];
+        private final int[] spanStart = new int[TILE_SIZE];
+        private final int[] spanEnd = new int[TILE_SIZE];
+
+        private int originX;
+        private int originY;
+        private int width;
+        private int height;
+        private float worldX;
+        private float worldY;
+        private float scale;
+
+        private int vertexCount;
+        private int layerColor;
+        private int dirtyMinY;
+        private int dirtyMaxY;
+
+        private void begin(int originX, int originY, int width, int height, float worldX, float worldY, float scale) {
+            this.originX = originX;
+            this.originY = originY;
+            this.width = width;
+            this.height = height;
+            this.worldX = worldX;
+            this.worldY = worldY;
+            this.scale = scale;
+            for (int y = 0; y < height; y++) {
+                int rowStart = y * TILE_SIZE;
+                Arrays.fill(red, rowStart, rowStart + width, 0.0f);
+                Arrays.fill(green, rowStart, rowStart + width, 0.0f);
+                Arrays.fill(blue, rowStart, rowStart + width, 0.0f);
+                Arrays.fill(alpha, rowStart, rowStart + width, 0.0f);
+            }
+            vertexCount = 0;
+            resetDirty();
+        }
+
+        @Override
+        public void vertex(float x, float y, int color) {
+            if (color != layerColor) {
+                flushLayer();
+                layerColor = color;
+            }
+            triangle[vertexCount * 2] = (x - worldX) * scale - originX;
+            triangle[vertexCount * 2 + 1] = (y - worldY) * scale - originY;
+            if (++vertexCount == 3) {
+                vertexCount = 0;
+                rasterizeTriangle();
+            }
+        }
+
+        private void rasterizeTriangle() {
+            float x1 = triangle[0];
+            float y1 = triangle[1];
+            float x2 = triangle[2];
+            float y2 = triangle[3];
+            float x3 = triangle[4];
+            float y3 = triangle[5];
+            if ((x2 - x1) * (y3 - y1) - (y2 - y1) * (x3 - x1) == 0.0f) {
+                return;
+            }
+
+            int minY = Math.max(0, (int) Math.floor(Math.min(y1, Math.min(y2, y3))));
+            int maxY = Math.min(height - 1, (int) Math.ceil(Math.max(y1, Math.max(y2, y3))) - 1);
+            float triangleMinX = Math.min(x1, Math.min(x2, x3));
+            float triangleMaxX = Math.max(x1, Math.max(x2, x3));
+            if (triangleMaxX <= 0.0f || triangleMinX >= width) {
+                return;
+            }
+
+            for (int py = minY; py <= maxY; py++) {
+                int size = clip(triangle, 3, scratchPolygon, 1, py, true);
+                size = clip(scratchPolygon, size, rowPolygon, 1, py + 1, false);
+                if (size < 3) {
+                    continue;
+                }
+
+                float left = Float.POSITIVE_INFINITY;
+                float right = Float.NEGATIVE_INFINITY;
+                for (int i = 0; i < size; i++) {
+                    left = Math.min(left, rowPolygon[i * 2]);
+                    right = Math.max(right, rowPolygon[i * 2]);
+                }
+                float innerLeft = Float.POSITIVE_INFINITY;
+                float innerRight = Float.NEGATIVE_INFINITY;
+                if (spanAt(py, 0) && spanAt(py + 1, 2)) {
+                    innerLeft = Math.max(span[0], span[2]);
+                    innerRight = Math.min(span[1], span[3]);
+                }
+
+                int start = Math.max(0, (int) Math.floor(left));
+                int end = Math.min(width - 1, (int) Math.ceil(right) - 1);
+                int rowStart = py * TILE_SIZE;
+                int first = Integer.MAX_VALUE;
+                int last = Integer.MIN_VALUE;
+                for (int px = start; px <= end; px++) {
+                    float cover = px >= innerLeft && px + 1 <= innerRight ? 1.0f : columnArea(rowPolygon, size, px);
+                    if (cover <= 0.0f) {
+                        continue;
+                    }
+                    int index = rowStart + px;
+                    float total = coverage[index] + cover;
+                    coverage[index] = total >= SOLID_COVERAGE ? 1.0f : total;
+                    first = Math.min(first, px);
+                    last = px;
+                }
+                if (first > last) {
+                    continue;
+                }
+                spanStart[py] = Math.min(spanStart[py], first);
+                spanEnd[py] = Math.max(spanEnd[py], last);
+                dirtyMinY = Math.min(dirtyMinY, py);
+                dirtyMaxY = Math.max(dirtyMaxY, py);
+            }
+        }
+
+        private boolean spanAt(float y, int slot) {
+            float left = Float.POSITIVE_INFINITY;
+            float right = Float.NEGATIVE_INFINITY;
+            for (int edge = 0; edge < 3; edge++) {
+                float ax = triangle[edge * 2];
+                float ay = triangle[edge * 2 + 1];
+                float bx = triangle[(edge * 2 + 2) % 6];
+                float by = triangle[(edge * 2 + 3) % 6];
+                if ((y < ay) == (y < by)) {
+                    continue;
+                }
+                float x = ax + (bx - ax) * (y - ay) / (by - ay);
+                left = Math.min(left, x);
+                right = Math.max(right, x);
+            }
+            span[slot] = left;
+            span[slot + 1] = right;
+            return left <= right;
+        }
+
+        private float columnArea(float[] polygon, int size, int px) {
+            int clipped = clip(polygon, size, scratchPolygon, 0, px, true);
+            clipped = clip(scratchPolygon, clipped, columnPolygon, 0, px + 1, false);
+            if (clipped < 3) {
+                return 0.0f;
+            }
+            float twiceArea = 0.0f;
+            for (int i = 0; i < clipped; i++) {
+                int next = (i + 1) % clipped;
+                twiceArea += columnPolygon[i * 2] * columnPolygon[next * 2 + 1]
+                        - columnPolygon[next * 2] * columnPolygon[i * 2 + 1];
+            }
+            return Math.min(1.0f, Math.abs(twiceArea) * 0.5f);
+        }
+
+        private static int clip(float[] input, int size, float[] output, int axis, float bound, boolean keepGreater) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int next = (i + 1) % size;
+                float a = input[i * 2 + axis];
+                float b = input[next * 2 + axis];
+                boolean aInside = keepGreater ? a >= bound : a <= bound;
+                boolean bInside = keepGreater ? b >= bound : b <= bound;
+                if (aInside) {
+                    output[count * 2] = input[i * 2];
+                    output[count * 2 + 1] = input[i * 2 + 1];
+                    count++;
+                }
+                if (aInside != bInside) {
+                    float t = (bound - a) / (b - a);
+                    output[count * 2] = input[i * 2] + (input[next * 2] - input[i * 2]) * t;
+                    output[count * 2 + 1] = input[i * 2 + 1] + (input[next * 2 + 1] - input[i * 2 + 1]) * t;
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private void flushLayer() {
+            vertexCount = 0;
+            if (dirtyMinY > dirtyMaxY) {
+                return;
+            }
+
+            float layerAlpha = ((layerColor >>> 24) & 0xFF) / 255.0f;
+            float layerRed = ((layerColor >>> 16) & 0xFF) / 255.0f * layerAlpha;
+            float layerGreen = ((layerColor >>> 8) & 0xFF) / 255.0f * layerAlpha;
+            float layerBlue = (layerColor & 0xFF) / 255.0f * layerAlpha;
+            for (int y = dirtyMinY; y <= dirtyMaxY; y++) {
+                for (int x = spanStart[y]; x <= spanEnd[y]; x++) {
+                    int index = y * TILE_SIZE + x;
+                    float cover = coverage[index];
+                    if (cover == 0.0f) {
+                        continue;
+                    }
+                    coverage[index] = 0.0f;
+                    float keep = 1.0f - layerAlpha * cover;
+                    red[index] = layerRed * cover + red[index] * keep;
+                    green[index] = layerGreen * cover + green[index] * keep;
+                    blue[index] = layerBlue * cover + blue[index] * keep;
+                    alpha[index] = layerAlpha * cover + alpha[index] * keep;
+                }
+            }
+            resetDirty();
+        }
+
+        private void resolve(int[] band, int bandX, int bandWidth) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int index = y * TILE_SIZE + x;
+                    float a = alpha[index];
+                    if (a <= 0.0f) {
+                        continue;
+                    }
+                    int r = Math.round(Math.min(1.0f, red[index] / a) * 255.0f);
+                    int g = Math.round(Math.min(1.0f, green[index] / a) * 255.0f);
+                    int b = Math.round(Math.min(1.0f, blue[index] / a) * 255.0f);
+                    int alphaByte = Math.round(Math.min(1.0f, a) * 255.0f);
+                    band[y * bandWidth + bandX + x] = alphaByte << 24 | r << 16 | g << 8 | b;
+                }
+            }
+        }
+
+        private void resetDirty() {
+            Arrays.fill(spanStart, Integer.MAX_VALUE);
+            Arrays.fill(spanEnd, Integer.MIN_VALUE);
+            dirtyMinY = Integer.MAX_VALUE;
+            dirtyMaxY = Integer.MIN_VALUE;
+        }
+    }
+}
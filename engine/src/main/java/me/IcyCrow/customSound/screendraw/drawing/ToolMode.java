@@ -0,0 +1,6 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+public enum ToolMode {
+    BRUSH,
+    ERASER
+}
@@ -0,0 +1,86 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BezierSmootherTest {
+    private static final float SNAP_ERROR = (float) (Math.sqrt(2.0) / 2.0 / Stroke.VERTEX_PRECISION);
+    private static final int SAMPLES = 2_000;
+
+    @Test
+    void flattenedCurvesStayWithinTolerance() {
+        Random random = new Random(14L);
+        for (float tolerance : new float[]{0.1f, 0.5f, 2.0f}) {
+            for (int curve = 0; curve < 300; curve++) {
+                float[] p = randomCurve(random, tolerance);
+                Stroke stroke = flatten(p, tolerance);
+                float deviation = maxDeviation(p, stroke);
+                assertTrue(deviation <= tolerance + SNAP_ERROR,
+                        "deviation " + deviation + " exceeds tolerance " + tolerance + " with "
+                                + (stroke.getPointCount() - 1) + " segments");
+            }
+        }
+    }
+
+    @Test
+    void straightCurvesUseOneSegment() {
+        assertEquals(1, BezierSmoother.segmentsFor(0.0f, 0.0f, 50.0f, 25.0f, 100.0f, 50.0f, 0.1f));
+        assertEquals(1, BezierSmoother.segmentsFor(10.0f, 10.0f, 10.0f, 10.0f, 10.0f, 10.0f, 0.1f));
+    }
+
+    private static float[] randomCurve(Random random, float tolerance) {
+        float reach = (float) Math.sqrt(tolerance) * 120.0f;
+        float[] p = new float[6];
+        for (int i = 0; i < p.length; i++) {
+            p[i] = 200.0f + (random.nextFloat() * 2.0f - 1.0f) * reach;
+        }
+        return p;
+    }
+
+    private static Stroke flatten(float[] p, float tolerance) {
+        Stroke stroke = new Stroke();
+        BezierSmoother smoother = new BezierSmoother();
+        smoother.begin(stroke, p[0], p[1], 0xFF000000, 2.0f, tolerance);
+        smoother.addControlPoint(p[2], p[3], 0xFF000000, 2.0f);
+        smoother.addControlPoint(p[4], p[5], 0xFF000000, 2.0f);
+        smoother.finish(0xFF000000, 2.0f);
+        stroke.complete();
+        return stroke;
+    }
+
+    private static float maxDeviation(float[] p, Stroke stroke) {
+        float worst = 0.0f;
+        for (int i = 0; i <= SAMPLES; i++) {
+            float t = (float) i / SAMPLES;
+            float x = curve(p[0], p[2], p[4], t);
+            float y = curve(p[1], p[3], p[5], t);
+            float nearest = Float.POSITIVE_INFINITY;
+            for (int v = 1; v < stroke.getPointCount(); v++) {
+                nearest = Math.min(nearest, distanceToSegment(x, y,
+                        stroke.getX(v - 1), stroke.getY(v - 1), stroke.getX(v), stroke.getY(v)));
+            }
+            worst = Math.max(worst, nearest);
+        }
+        return worst;
+    }
+
+    private static float curve(float a, float b, float c, float t) {
+        float u = 1 - t;
+        return u * u * a + 2 * u * t * b + t * t * c;
+    }
+
+    private static float distanceToSegment(float px, float py, float ax, float ay, float bx, float by) {
+        float dx = bx - ax;
+        float dy = by - ay;
+        float lengthSquared = dx * dx + dy * dy;
+        float t = lengthSquared == 0.0f ? 0.0f
+                : Math.max(0.0f, Math.min(1.0f, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        float ex = px - (ax + t * dx);
+        float ey = py - (ay + t * dy);
+        return (float) Math.sqrt(ex * ex + ey * ey);
+    }
+}
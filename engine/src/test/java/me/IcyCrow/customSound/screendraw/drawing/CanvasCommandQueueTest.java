@@ -0,0 +1,104 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CanvasCommandQueueTest {
+    @Test
+    void dragsStayOrderedAroundCommands() {
+        DrawingCanvas direct = new DrawingCanvas();
+        DrawingCanvas queued = new DrawingCanvas();
+        CanvasCommandQueue commands = new CanvasCommandQueue(queued);
+
+        Random random = new Random(5L);
+        for (int stroke = 0; stroke < 4; stroke++) {
+            int samples = stroke == 2 ? 3_000 : 1 + random.nextInt(50);
+            float x = random.nextInt(400);
+            float y = random.nextInt(400);
+            both(direct, commands, InputEvent.pointer(InputEvent.Type.PRESS, x, y));
+            for (int i = 0; i < samples; i++) {
+                x += random.nextInt(21) - 10;
+                y += random.nextInt(21) - 10;
+                InputEvent.pointer(InputEvent.Type.DRAG, x, y).apply(direct);
+                commands.submitDrag(x, y);
+            }
+            both(direct, commands, InputEvent.pointer(InputEvent.Type.RELEASE, x, y));
+            both(direct, commands, InputEvent.adjust(InputEvent.Type.BRUSH_SIZE, 1.5f));
+        }
+        assertFalse(commands.isEmpty());
+        CanvasSnapshot snapshot = commands.drain();
+
+        assertTrue(commands.isEmpty());
+        assertEquals(4, snapshot.strokes().size());
+        assertTrue(StrokeContent.same(StrokeContent.of(direct.getStrokeList()), StrokeContent.of(snapshot.strokes())));
+    }
+
+    @Test
+    void drainLeavesTheStrokeInProgressOpen() {
+        DrawingCanvas canvas = new DrawingCanvas();
+        canvas.getBrushSettings().setSmoothingEnabled(false);
+        CanvasCommandQueue commands = new CanvasCommandQueue(canvas);
+        commands.submit(InputEvent.pointer(InputEvent.Type.PRESS, 10.0, 10.0));
+        commands.submitDrag(40.0, 10.0);
+
+        CanvasSnapshot snapshot = commands.drain();
+        assertTrue(canvas.isDrawing());
+        assertEquals(0, snapshot.strokes().size());
+
+        commands.submitDrag(80.0, 10.0);
+        commands.submit(InputEvent.pointer(InputEvent.Type.RELEASE, 80.0, 10.0));
+        snapshot = commands.drain();
+        assertEquals(1, snapshot.strokes().size());
+        assertEquals(3, snapshot.strokes().get(0).getPointCount());
+    }
+
+    @Test
+    void dragsKeepSubPixelPrecisionAndDropRepeats() {
+        DrawingCanvas canvas = new DrawingCanvas();
+        canvas.getBrushSettings().setSmoothingEnabled(false);
+        canvas.getCamera().pan(4_000.0, 0.0);
+        canvas.getCamera().zoomAt(4_000.0, 0.0, CanvasCamera.MIN_ZOOM);
+        CanvasCommandQueue commands = new CanvasCommandQueue(canvas);
+        commands.submit(InputEvent.pointer(InputEvent.Type.PRESS, 4_000.0, 0.0));
+        for (int i = 0; i < 3; i++) {
+            commands.submitDrag(4_000.0001, 0.0);
+        }
+        commands.submitDrag(4_020.0, 0.0);
+        commands.submit(InputEvent.pointer(InputEvent.Type.RELEASE, 4_020.0, 0.0));
+
+        CanvasSnapshot snapshot = commands.drain();
+        assertEquals(2L, commands.getPendingInput().getDroppedSamples());
+        Stroke stroke = snapshot.strokes().get(0);
+        assertEquals(3, stroke.getPointCount());
+        assertTrue(stroke.getX(1) > 0.0f, "sub-pixel drag collapsed onto the press point");
+    }
+
+    @Test
+    void submittingDragsDoesNotAllocate() {
+        DrawingCanvas canvas = new DrawingCanvas();
+        CanvasCommandQueue commands = new CanvasCommandQueue(canvas);
+        assumeTrue(DrawingMetrics.currentThreadAllocatedBytes() >= 0L);
+
+        long allocated = 0L;
+        for (int round = 0; round < 200; round++) {
+            long started = DrawingMetrics.currentThreadAllocatedBytes();
+            for (int i = 0; i < 500; i++) {
+                commands.submitDrag(i, round);
+            }
+            allocated = DrawingMetrics.currentThreadAllocatedBytes() - started;
+            commands.drain();
+        }
+        assertEquals(0L, allocated);
+    }
+
+    private static void both(DrawingCanvas direct, CanvasCommandQueue commands, InputEvent event) {
+        event.apply(direct);
+        commands.submit(event);
+    }
+}
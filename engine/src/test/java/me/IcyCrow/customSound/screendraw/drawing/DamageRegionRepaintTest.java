@@ -0,0 +1,80 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class DamageRegionRepaintTest {
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+
+    private final DrawingCanvas canvas = new DrawingCanvas();
+    private final int[] layer = new int[WIDTH * HEIGHT];
+
+    @Test
+    void rasterizingDamagedRegionsMatchesFullRendering() {
+        repaint(true);
+        draw(0x80FF0000, 6.0f, 20, 20, 140, 60, 200, 30);
+        repaint(false);
+        draw(0xC00000FF, 3.0f, 40, 200, 90, 120, 160, 180, 300, 100);
+        repaint(false);
+        draw(0x6000FF00, 12.0f, 150, 40, 150, 220);
+        repaint(false);
+
+        canvas.getBrushSettings().setToolMode(ToolMode.ERASER);
+        canvas.getBrushSettings().setLineWidth(8.0f);
+        draw(0, 0, 130, 20, 170, 80);
+        repaint(false);
+        canvas.getBrushSettings().setToolMode(ToolMode.BRUSH);
+
+        canvas.undo();
+        repaint(false);
+        canvas.undo();
+        repaint(false);
+        canvas.redo();
+        repaint(false);
+        canvas.redo();
+        repaint(false);
+
+        canvas.clear();
+        repaint(false);
+        canvas.undo();
+        repaint(false);
+    }
+
+    private void draw(int color, float width, float... points) {
+        BrushSettings brush = canvas.getBrushSettings();
+        if (color != 0) {
+            brush.setColor(color);
+            brush.setLineWidth(width);
+        }
+        canvas.startStroke(points[0], points[1]);
+        for (int i = 2; i < points.length; i += 2) {
+            canvas.continueStroke(points[i], points[i + 1]);
+        }
+        canvas.endStroke();
+    }
+
+    private void repaint(boolean expectFull) {
+        CanvasDamage damage = canvas.consumeDamage();
+        int[] immediate = Rasters.render(canvas.getStrokes(), WIDTH, HEIGHT);
+        if (!expectFull) {
+            assertFalse(damage.full(), "edit should only damage part of the layer");
+        }
+        if (damage.full()) {
+            System.arraycopy(immediate, 0, layer, 0, layer.length);
+        } else {
+            for (Bounds region : damage.regions()) {
+                int x1 = Math.max(0, (int) Math.floor(region.minX()));
+                int y1 = Math.max(0, (int) Math.floor(region.minY()));
+                int x2 = Math.min(WIDTH, (int) Math.ceil(region.maxX()));
+                int y2 = Math.min(HEIGHT, (int) Math.ceil(region.maxY()));
+                for (int y = y1; y < y2; y++) {
+                    System.arraycopy(immediate, y * WIDTH + x1, layer, y * WIDTH + x1, Math.max(0, x2 - x1));
+                }
+            }
+        }
+        assertArrayEquals(immediate, layer);
+    }
+}
@@ -0,0 +1,43 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawingExportTest {
+    @Test
+    void exportCoversAPannedRegion(@TempDir Path directory) throws IOException {
+        Stroke home = Rasters.stroke(0xFFFF0000, 6.0f, 20.0f, 20.0f, 60.0f, 20.0f);
+        Stroke panned = Rasters.stroke(0xFF0000FF, 6.0f, 1020.0f, -480.0f, 1060.0f, -480.0f);
+        Bounds region = new Bounds(1000.0f, -500.0f, 1200.0f, -400.0f);
+
+        Path path = DrawingExport.exportPng(directory, List.of(home, panned), region,
+                DrawingExport.Size.scale(2.0f), progress -> {
+                });
+        BufferedImage image = ImageIO.read(path.toFile());
+
+        assertEquals(400, image.getWidth());
+        assertEquals(200, image.getHeight());
+        assertEquals(0xFF0000FF, image.getRGB(80, 40));
+        assertEquals(0, image.getRGB(80, 80) >>> 24);
+        int painted = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int argb = image.getRGB(x, y);
+                assertTrue(argb >>> 24 == 0 || (argb & 0xFFFF00) == 0, "unexpected color at " + x + "," + y);
+                if (argb >>> 24 != 0) {
+                    painted++;
+                }
+            }
+        }
+        assertTrue(painted > 40 * 2 * 6 * 2, "only " + painted + " pixels painted");
+    }
+}
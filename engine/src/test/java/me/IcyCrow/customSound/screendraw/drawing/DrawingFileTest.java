@@ -0,0 +1,128 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawingFileTest {
+    @Test
+    void compressedFileRoundTripsExactly(@TempDir Path directory) throws IOException {
+        assertRoundTrip(directory.resolve("compressed" + DrawingFile.EXTENSION), true);
+    }
+
+    @Test
+    void uncompressedFileRoundTripsExactly(@TempDir Path directory) throws IOException {
+        assertRoundTrip(directory.resolve("raw" + DrawingFile.EXTENSION), false);
+    }
+
+    @Test
+    void invalidCanvasSizeIsRejected(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("broken" + DrawingFile.EXTENSION);
+        DrawingFile.write(path, Rasters.strokes(3, 10, 1L), new BrushSettings(), 640, 480, true);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[7] = (byte) 0xFF;
+        Files.write(path, bytes);
+
+        IOException exception = assertThrows(IOException.class, () -> DrawingFile.read(path));
+        assertTrue(exception.getMessage().contains("canvas size"), exception.getMessage());
+    }
+
+    @Test
+    void truncatedFileFailsWithIOException(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("truncated" + DrawingFile.EXTENSION);
+        DrawingFile.write(path, Rasters.strokes(50, 100, 2L), new BrushSettings(), 640, 480, true);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> DrawingFile.read(path));
+    }
+
+    @Test
+    void negativeStrokeCountIsRejected(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("negative" + DrawingFile.EXTENSION);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(0x53445257);
+            out.writeShort(1);
+            out.writeByte(0);
+            out.writeInt(640);
+            out.writeInt(480);
+            out.writeInt(0xFF000000);
+            out.writeFloat(3.0f);
+            out.writeFloat(1.0f);
+            out.writeBoolean(false);
+            out.writeUTF("BRUSH");
+            StrokeCodec.writeVarInt(out, 0);
+            StrokeCodec.writeVarInt(out, -1);
+        }
+
+        assertThrows(IOException.class, () -> DrawingFile.read(path));
+    }
+
+    @Test
+    void failedWriteLeavesNoTempFile(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("failed" + DrawingFile.EXTENSION);
+        List<Stroke> source = Rasters.strokes(20, 10, 3L);
+        List<Stroke> changing = new AbstractList<>() {
+            @Override
+            public Stroke get(int index) {
+                if (index == 10) {
+                    throw new IllegalStateException("stroke list changed while saving");
+                }
+                return source.get(index);
+            }
+
+            @Override
+            public int size() {
+                return source.size();
+            }
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> DrawingFile.write(path, changing, new BrushSettings(), 640, 480, true));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0L, files.count());
+        }
+    }
+
+    private static void assertRoundTrip(Path path, boolean compress) throws IOException {
+        List<Stroke> strokes = new ArrayList<>(Rasters.strokes(200, 150, 11L));
+        Stroke mixed = new Stroke();
+        mixed.addVertex(1.0f, 2.0f, 0xFF112233, 2.0f);
+        mixed.addVertex(-40.125f, 7.5f, 0xFF112233, 2.0f);
+        mixed.addVertex(12.0f, 9.0f, 0x80FF0000, 6.5f);
+        mixed.addVertex(100000.0f, -3.0f, 0x80FF0000, 6.5f);
+        mixed.complete();
+        strokes.add(mixed);
+
+        BrushSettings brush = new BrushSettings(7.5f, 0xFF336699, true);
+        brush.setOpacity(0.4f);
+        brush.setToolMode(ToolMode.ERASER);
+        brush.saveColorSlot(2);
+
+        DrawingFile.write(path, strokes, brush, 1280, 720, compress);
+        SavedDrawing loaded = DrawingFile.read(path);
+
+        assertTrue(StrokeContent.same(StrokeContent.of(strokes), StrokeContent.of(loaded.strokes())));
+        assertEquals(brush.getColor(), loaded.color());
+        assertEquals(brush.getLineWidth(), loaded.lineWidth());
+        assertEquals(brush.getOpacity(), loaded.opacity());
+        assertEquals(brush.isSmoothingEnabled(), loaded.smoothingEnabled());
+        assertEquals(brush.getToolMode(), loaded.toolMode());
+        assertArrayEquals(brush.getColorSlots(), loaded.colorSlots());
+        assertEquals(path, loaded.path());
+    }
+}
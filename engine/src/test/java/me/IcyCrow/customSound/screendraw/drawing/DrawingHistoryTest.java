@@ -0,0 +1,262 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawingHistoryTest {
+    private static final int COLOR = 0xFF2050A0;
+
+    @Test
+    void undoAndRedoMatchDeepCopySnapshots() {
+        assertMatchesSnapshots(new DrawingHistory(Long.MAX_VALUE, null), 600);
+    }
+
+    @Test
+    void spilledHistoryMatchesDeepCopySnapshots(@TempDir Path directory) {
+        DrawingHistory history = new DrawingHistory(0L, directory);
+        assertMatchesSnapshots(history, 600);
+        assertTrue(history.getSpilledStateCount() > 0);
+        assertNull(history.takeSpillError());
+        assertNull(history.takeRestoreError());
+    }
+
+    @Test
+    void spillFileIsCompactedWhileUndoAndRedoCycle(@TempDir Path directory) {
+        DrawingHistory history = new DrawingHistory(0L, directory);
+        DrawingCanvas canvas = new DrawingCanvas(history);
+        Random random = new Random(3L);
+        List<List<int[]>> states = new ArrayList<>();
+        states.add(content(canvas));
+        for (int i = 0; i < 8; i++) {
+            drawLong(canvas, random, 20_000);
+            states.add(content(canvas));
+        }
+
+        long written = 0L;
+        long largest = 0L;
+        for (int cycle = 0; cycle < 60; cycle++) {
+            long before = history.getSpillFileBytes();
+            assertTrue(canvas.undo());
+            assertTrue(canvas.undo());
+            assertTrue(same(states.get(states.size() - 3), content(canvas)), "undo diverged in cycle " + cycle);
+            assertTrue(canvas.redo());
+            assertTrue(canvas.redo());
+            assertTrue(same(states.getLast(), content(canvas)), "redo diverged in cycle " + cycle);
+            written += Math.max(0L, history.getSpillFileBytes() - before);
+            largest = Math.max(largest, history.getSpillFileBytes());
+        }
+
+        for (int i = states.size() - 2; i >= 0; i--) {
+            assertTrue(canvas.undo());
+            assertTrue(same(states.get(i), content(canvas)), "undo to state " + i + " diverged");
+        }
+        assertTrue(largest * 3 < written, "spill file grew to " + largest + " B after appending " + written + " B");
+        assertNull(history.takeSpillError());
+        canvas.replaceStrokes(List.of(), false);
+        assertEquals(0L, history.getSpillFileBytes());
+    }
+
+    @Test
+    void spillFailureKeepsHistoryInMemoryAndIsReported(@TempDir Path directory) throws IOException {
+        Path blocked = Files.createFile(directory.resolve("not-a-directory"));
+        DrawingHistory history = new DrawingHistory(0L, blocked);
+        DrawingCanvas canvas = new DrawingCanvas(history);
+        Random random = new Random(5L);
+        List<List<int[]>> states = new ArrayList<>();
+        states.add(content(canvas));
+        for (int i = 0; i < 4; i++) {
+            draw(canvas, random, ToolMode.BRUSH);
+            states.add(content(canvas));
+        }
+
+        assertNotNull(history.takeSpillError());
+        assertNull(history.takeSpillError());
+        assertEquals(0, history.getSpilledStateCount());
+        for (int i = states.size() - 2; i >= 0; i--) {
+            assertTrue(canvas.undo());
+            assertTrue(same(states.get(i), content(canvas)));
+        }
+    }
+
+    @Test
+    void residentBytesChargeOnlyEditedStrokes() {
+        DrawingHistory history = new DrawingHistory(Long.MAX_VALUE, null);
+        DrawingCanvas canvas = new DrawingCanvas(history);
+        canvas.replaceStrokes(Rasters.strokes(5_000, 50, 2L), false);
+        assertEquals(0L, history.getResidentBytes());
+
+        Random random = new Random(6L);
+        draw(canvas, random, ToolMode.BRUSH);
+        long drawn = history.getResidentBytes();
+        assertTrue(drawn > 0L && drawn < 1024L, "one appended stroke charged " + drawn + " B");
+
+        assertTrue(canvas.undo());
+        long undone = history.getResidentBytes();
+        for (int cycle = 0; cycle < 20; cycle++) {
+            assertTrue(canvas.redo());
+            assertEquals(drawn, history.getResidentBytes());
+            assertTrue(canvas.undo());
+            assertEquals(undone, history.getResidentBytes());
+        }
+        assertTrue(canvas.redo());
+
+        StrokeList before = canvas.getStrokeList();
+        canvas.getBrushSettings().setToolMode(ToolMode.ERASER);
+        canvas.getBrushSettings().setLineWidth(12.0f);
+        canvas.startStroke(0.0f, 200.0f);
+        canvas.continueStroke(400.0f, 200.0f);
+        canvas.endStroke();
+
+        Set<Stroke> after = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Stroke stroke : canvas.getStrokeList()) {
+            after.add(stroke);
+        }
+        long removed = 0L;
+        for (Stroke stroke : before) {
+            if (!after.contains(stroke)) {
+                removed += stroke.estimateBytes();
+            }
+        }
+        assertTrue(removed > 0L);
+        assertEquals(2L * drawn + removed, history.getResidentBytes());
+    }
+
+    private static void assertMatchesSnapshots(DrawingHistory history, int steps) {
+        DrawingCanvas canvas = new DrawingCanvas(history);
+        Random random = new Random(42L);
+        Deque<List<int[]>> undo = new ArrayDeque<>();
+        Deque<List<int[]>> redo = new ArrayDeque<>();
+        List<int[]> expected = content(canvas);
+
+        for (int step = 0; step < steps; step++) {
+            int op = random.nextInt(100);
+            if (op < 60) {
+                List<int[]> before = content(canvas);
+                if (op < 40) {
+                    draw(canvas, random, ToolMode.BRUSH);
+                } else if (op < 57) {
+                    List<Stroke> strokes = canvas.getStrokes();
+                    long path = random.nextLong();
+                    draw(canvas, new Random(path), ToolMode.ERASER);
+                    DrawingCanvas fresh = new DrawingCanvas();
+                    fresh.replaceStrokes(strokes, false);
+                    draw(fresh, new Random(path), ToolMode.ERASER);
+                    assertTrue(same(content(fresh), content(canvas)), "erase diverged from a fresh canvas at step " + step);
+                } else {
+                    canvas.clear();
+                }
+                List<int[]> after = content(canvas);
+                if (!same(before, after)) {
+                    undo.push(before);
+                    redo.clear();
+                }
+                expected = after;
+            } else if (op < 82) {
+                assertEquals(!undo.isEmpty(), canvas.undo(), "undo availability at step " + step);
+                if (!undo.isEmpty()) {
+                    redo.push(expected);
+                    expected = undo.pop();
+                }
+            } else {
+                assertEquals(!redo.isEmpty(), canvas.redo(), "redo availability at step " + step);
+                if (!redo.isEmpty()) {
+                    undo.push(expected);
+                    expected = redo.pop();
+                }
+            }
+            assertTrue(same(expected, content(canvas)), "canvas diverged from snapshots at step " + step);
+            assertEquals(undo.size(), canvas.getHistory().getUndoHistorySize());
+        }
+    }
+
+    @Test
+    void historyRetainsFarLessThanDeepCopySnapshots() {
+        List<Stroke> base = Rasters.strokes(1_000, 100, 7L);
+        int edits = 50;
+
+        long persistent = Heap.retained(() -> {
+            DrawingCanvas canvas = new DrawingCanvas(new DrawingHistory(Long.MAX_VALUE, null));
+            canvas.replaceStrokes(base, false);
+            Random random = new Random(1L);
+            for (int i = 0; i < edits; i++) {
+                draw(canvas, random, ToolMode.BRUSH);
+            }
+            return canvas;
+        });
+        long deepCopies = Heap.retained(() -> {
+            List<List<Stroke>> snapshots = new ArrayList<>();
+            List<Stroke> state = new ArrayList<>();
+            for (Stroke stroke : base) {
+                state.add(stroke.copy());
+            }
+            Random random = new Random(1L);
+            for (int i = 0; i < edits; i++) {
+                List<Stroke> snapshot = new ArrayList<>(state.size());
+                for (Stroke stroke : state) {
+                    snapshot.add(stroke.copy());
+                }
+                snapshots.add(snapshot);
+                state.add(Rasters.stroke(COLOR, 4.0f, random.nextInt(400), random.nextInt(400),
+                        random.nextInt(400), random.nextInt(400)));
+            }
+            snapshots.add(state);
+            return snapshots;
+        });
+        assertTrue(persistent * 10 < deepCopies, "persistent history " + persistent + " B vs deep copies " + deepCopies + " B");
+    }
+
+    private static void draw(DrawingCanvas canvas, Random random, ToolMode tool) {
+        BrushSettings brush = canvas.getBrushSettings();
+        brush.setToolMode(tool);
+        brush.setColor(COLOR);
+        brush.setSimplifyTolerance(0.5f);
+        brush.setLineWidth(tool == ToolMode.ERASER ? 12.0f : 2.0f + random.nextInt(6));
+        float x = random.nextFloat() * 400.0f;
+        float y = random.nextFloat() * 400.0f;
+        canvas.startStroke(x, y);
+        int samples = 2 + random.nextInt(30);
+        for (int i = 0; i < samples; i++) {
+            x += random.nextFloat() * 30.0f - 15.0f;
+            y += random.nextFloat() * 30.0f - 15.0f;
+            canvas.continueStroke(x, y);
+        }
+        canvas.endStroke();
+    }
+
+    private static void drawLong(DrawingCanvas canvas, Random random, int samples) {
+        BrushSettings brush = canvas.getBrushSettings();
+        brush.setToolMode(ToolMode.BRUSH);
+        brush.setSmoothingEnabled(false);
+        brush.setColor(COLOR);
+        canvas.startStroke(random.nextFloat() * 400.0f, random.nextFloat() * 400.0f);
+        for (int i = 0; i < samples; i++) {
+            canvas.continueStroke(random.nextFloat() * 400.0f, random.nextFloat() * 400.0f);
+        }
+        canvas.endStroke();
+    }
+
+    private static List<int[]> content(DrawingCanvas canvas) {
+        return StrokeContent.of(canvas.getStrokeList());
+    }
+
+    private static boolean same(List<int[]> a, List<int[]> b) {
+        return StrokeContent.same(a, b);
+    }
+}
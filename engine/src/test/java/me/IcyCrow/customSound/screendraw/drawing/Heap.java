@@ -0,0 +1,27 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.lang.ref.Reference;
+import java.util.function.Supplier;
+
+final class Heap {
+    private Heap() {
+    }
+
+    static long retained(Supplier<?> allocation) {
+        long before = used();
+        Object value = allocation.get();
+        long after = used();
+        Reference.reachabilityFence(value);
+        return after - before;
+    }
+
+    static long used() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 5; attempt++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,125 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputTraceTest {
+    private static final long SAMPLE_NANOS = 4_000_000L;
+
+    @Test
+    void traceRoundTripsThroughFile(@TempDir Path directory) throws IOException {
+        InputTrace trace = session(12, 40, 3L);
+        Path path = directory.resolve("session" + InputTrace.EXTENSION);
+        trace.write(path);
+        InputTrace loaded = InputTrace.read(path);
+
+        assertEquals(trace.getEvents(), loaded.getEvents());
+        for (int i = 0; i < trace.size(); i++) {
+            assertEquals(trace.getTimestamp(i), loaded.getTimestamp(i));
+        }
+        assertTrue(StrokeContent.same(StrokeContent.of(trace.getInitialStrokes()),
+                StrokeContent.of(loaded.getInitialStrokes())));
+        assertEquals(InputTraceReplayer.replay(trace).stateHash(), InputTraceReplayer.replay(loaded).stateHash());
+    }
+
+    @Test
+    void negativeEventCountIsRejected(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("broken" + InputTrace.EXTENSION);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(0x53445452);
+            out.writeShort(1);
+            DataOutputStream body = new DataOutputStream(new DeflaterOutputStream(out));
+            body.writeInt(0xFFFFFFFF);
+            body.writeFloat(2.0f);
+            body.writeFloat(1.0f);
+            body.writeBoolean(true);
+            body.writeFloat(0.25f);
+            body.writeFloat(0.0f);
+            body.writeByte(0);
+            StrokeCodec.writeVarInt(body, 0);
+            body.writeFloat(0.0f);
+            body.writeFloat(0.0f);
+            body.writeFloat(1.0f);
+            StrokeCodec.writeVarInt(body, 0);
+            StrokeCodec.writeVarInt(body, Integer.MIN_VALUE);
+            body.close();
+        }
+
+        IOException exception = assertThrows(IOException.class, () -> InputTrace.read(path));
+        assertTrue(exception.getMessage().contains("event count"), exception.getMessage());
+    }
+
+    @Test
+    void failedWriteLeavesNoTempFile(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("failed" + InputTrace.EXTENSION);
+        List<InputEvent> events = new ArrayList<>();
+        events.add(InputEvent.pointer(InputEvent.Type.PRESS, 1.0, 2.0));
+        events.add(new InputEvent(null, 0.0f, 0.0f, 0.0f, 0));
+        InputTrace trace = new InputTrace(List.of(), new BrushSettings(), 0.0f, 0.0f, 1.0f, events, new long[2]);
+
+        assertThrows(NullPointerException.class, () -> trace.write(path));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0L, files.count());
+        }
+    }
+
+    @Test
+    void replayCoalescesEventsIntoFramesDeterministically() {
+        InputTrace trace = session(30, 60, 5L);
+        InputTraceReplayer.Result first = InputTraceReplayer.replay(trace);
+        InputTraceReplayer.Result second = InputTraceReplayer.replay(trace);
+
+        assertEquals(first.stateHash(), second.stateHash());
+        long expectedFrames = 30L * (60L * SAMPLE_NANOS / InputTraceReplayer.FRAME_NANOS + 2L);
+        assertTrue(first.frameNanos().length <= expectedFrames,
+                first.frameNanos().length + " frames for " + trace.size() + " events");
+        assertTrue(first.frameNanos().length * 3 < trace.size());
+    }
+
+    private static InputTrace session(int strokes, int samples, long seed) {
+        DrawingCanvas canvas = new DrawingCanvas();
+        canvas.getBrushSettings().setSimplifyTolerance(0.5f);
+        InputTraceRecorder recorder = new InputTraceRecorder(canvas);
+        Random random = new Random(seed);
+        long clock = 0L;
+        for (int i = 0; i < strokes; i++) {
+            clock += 200_000_000L;
+            boolean erase = i % 5 == 4;
+            if (erase) {
+                recorder.record(InputEvent.tool(ToolMode.ERASER), clock);
+            }
+            float x = random.nextFloat() * 400.0f;
+            float y = random.nextFloat() * 400.0f;
+            for (int j = 0; j < samples; j++) {
+                InputEvent.Type type = j == 0 ? InputEvent.Type.PRESS
+                        : j == samples - 1 ? InputEvent.Type.RELEASE : InputEvent.Type.DRAG;
+                x += random.nextFloat() * 12.0f - 6.0f;
+                y += random.nextFloat() * 12.0f - 6.0f;
+                clock += SAMPLE_NANOS;
+                recorder.record(InputEvent.pointer(type, x, y), clock);
+            }
+            if (erase) {
+                recorder.record(InputEvent.tool(ToolMode.BRUSH), clock);
+            }
+            if (i % 7 == 6) {
+                recorder.record(InputEvent.action(InputEvent.Type.UNDO), clock);
+                recorder.record(InputEvent.action(InputEvent.Type.REDO), clock);
+            }
+        }
+        return recorder.finish();
+    }
+}
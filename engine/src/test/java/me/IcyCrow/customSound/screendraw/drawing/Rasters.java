@@ -0,0 +1,75 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+final class Rasters {
+    private Rasters() {
+    }
+
+    static int[] render(List<Stroke> strokes, int width, int height) {
+        return render(new TiledRasterizer(), strokes, width, height);
+    }
+
+    static int[] render(TiledRasterizer rasterizer, List<Stroke> strokes, int width, int height) {
+        return render(rasterizer, strokes, width, height, 1.0f);
+    }
+
+    static int[] render(TiledRasterizer rasterizer, List<Stroke> strokes, int width, int height, float scale) {
+        return render(rasterizer, strokes, 0.0f, 0.0f, width, height, scale);
+    }
+
+    static int[] render(TiledRasterizer rasterizer, List<Stroke> strokes, float worldX, float worldY,
+                        int width, int height, float scale) {
+        int[] pixels = new int[width * height];
+        int[] row = {0};
+        try {
+            rasterizer.rasterize(strokes, worldX, worldY, width, height, scale,
+                    (argb, offset) -> System.arraycopy(argb, offset, pixels, row[0]++ * width, width), progress -> {
+                    });
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return pixels;
+    }
+
+    static TiledRasterizer singleThreaded() {
+        return new TiledRasterizer(new ForkJoinPool(1));
+    }
+
+    static int alpha(int argb) {
+        return argb >>> 24;
+    }
+
+    static Stroke stroke(int color, float width, float... coordinates) {
+        Stroke stroke = new Stroke();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            stroke.addVertex(coordinates[i], coordinates[i + 1], color, width);
+        }
+        stroke.complete();
+        return stroke;
+    }
+
+    static List<Stroke> strokes(int count, int points, long seed) {
+        Random random = new Random(seed);
+        List<Stroke> strokes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Stroke stroke = new Stroke();
+            float x = random.nextFloat() * 1000.0f;
+            float y = random.nextFloat() * 1000.0f;
+            int color = 0xFF000000 | random.nextInt(0x1000000);
+            for (int j = 0; j < points; j++) {
+                x += (float) random.nextGaussian() * 4.0f;
+                y += (float) random.nextGaussian() * 4.0f;
+                stroke.addVertex(x, y, color, 3.0f);
+            }
+            stroke.complete();
+            strokes.add(stroke);
+        }
+        return strokes;
+    }
+}
@@ -0,0 +1,171 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StrokeBoundsTest {
+    private static final int COLOR = 0xFF2050A0;
+
+    @Test
+    void incrementalBoundsMatchRecomputedBounds() {
+        Stroke stroke = randomStroke(new Random(9L), 1_000, 60.0f);
+        assertTight(stroke);
+
+        Stroke erased = stroke.erasedCapsule(200.0f, 0.0f, 200.0f, 400.0f, 20.0f);
+        assertNotNull(erased);
+        erased.complete();
+        assertTight(erased);
+        assertTight(stroke.copy());
+    }
+
+    @Test
+    void erasingCutsOnlyTheHitSegments() {
+        Random random = new Random(21L);
+        Stroke stroke = new Stroke();
+        for (int i = 0; i < 5_000; i++) {
+            stroke.addVertex(i, 100.0f + random.nextFloat() * 4.0f, COLOR, i < 3_000 ? 4.0f : 6.0f);
+        }
+        stroke.complete();
+
+        Stroke erased = stroke.erasedCapsule(2_500.0f, 80.0f, 2_500.0f, 120.0f, 10.0f);
+        assertNotNull(erased);
+        erased.complete();
+        assertTight(erased);
+        assertEquals(stroke.getRunCount() + 1, erased.getRunCount());
+
+        int kept = 0;
+        for (int i = 0; i < stroke.getPointCount(); i++) {
+            float x = stroke.getX(i);
+            if (Math.abs(x - 2_500.0f) <= 13.0f) {
+                continue;
+            }
+            while (kept < erased.getPointCount() && erased.getX(kept) != x) {
+                kept++;
+            }
+            assertTrue(kept < erased.getPointCount(), "lost vertex " + i);
+            assertEquals(stroke.getY(i), erased.getY(kept));
+        }
+        for (int i = 0; i < erased.getPointCount(); i++) {
+            assertTrue(Math.abs(erased.getX(i) - 2_500.0f) >= 11.9f, "kept vertex inside the eraser at " + erased.getX(i));
+        }
+        assertNull(stroke.erasedCapsule(2_500.0f, 300.0f, 2_600.0f, 300.0f, 10.0f));
+    }
+
+    @Test
+    void culledTessellationKeepsEveryVisibleTriangle() {
+        Stroke stroke = randomStroke(new Random(4L), 4_000, 6.0f);
+        Bounds visible = new Bounds(150.0f, 150.0f, 250.0f, 250.0f);
+
+        List<float[]> all = triangles(stroke, null);
+        List<float[]> culled = triangles(stroke, visible);
+        Set<String> kept = new HashSet<>();
+        for (float[] triangle : culled) {
+            kept.add(key(triangle));
+        }
+
+        int visibleTriangles = 0;
+        for (float[] triangle : all) {
+            if (intersects(triangle, visible)) {
+                visibleTriangles++;
+                assertTrue(kept.contains(key(triangle)), "culled a visible triangle");
+            }
+        }
+        assertTrue(visibleTriangles > 0);
+        assertTrue(culled.size() * 2 < all.size(), "culled " + culled.size() + " of " + all.size() + " triangles");
+    }
+
+    @Test
+    void strokesOutsideTheViewAreSkippedWhole() {
+        Stroke stroke = Rasters.stroke(COLOR, 4.0f, 10.0f, 10.0f, 90.0f, 90.0f);
+        assertEquals(0, StrokeGeometry.tessellate(stroke, new Bounds(200.0f, 200.0f, 300.0f, 300.0f), (x, y, color) -> {
+        }));
+        assertTrue(StrokeGeometry.tessellate(stroke, new Bounds(80.0f, 80.0f, 300.0f, 300.0f), (x, y, color) -> {
+        }) > 0);
+    }
+
+    private static Stroke randomStroke(Random random, int points, float step) {
+        Stroke stroke = new Stroke();
+        float x = 200.0f;
+        float y = 200.0f;
+        float size = 4.0f;
+        for (int i = 0; i < points; i++) {
+            if (i % 300 == 299) {
+                size = 2.0f + random.nextInt(12);
+            }
+            x = Math.max(0.0f, Math.min(400.0f, x + (random.nextFloat() * 2.0f - 1.0f) * step));
+            y = Math.max(0.0f, Math.min(400.0f, y + (random.nextFloat() * 2.0f - 1.0f) * step));
+            stroke.addVertex(x, y, COLOR, size);
+        }
+        stroke.complete();
+        return stroke;
+    }
+
+    private static void assertTight(Stroke stroke) {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int run = 0; run < stroke.getRunCount(); run++) {
+            float extent = stroke.getRunSize(run) / 2.0f * StrokeGeometry.MITER_LIMIT;
+            for (int i = stroke.getRunStart(run); i < stroke.getRunEnd(run); i++) {
+                float x = stroke.getX(i);
+                float y = stroke.getY(i);
+                minX = Math.min(minX, x - extent);
+                minY = Math.min(minY, y - extent);
+                maxX = Math.max(maxX, x + extent);
+                maxY = Math.max(maxY, y + extent);
+
+                Bounds point = new Bounds(x, y, x, y);
+                assertTrue(stroke.chunkIntersects(i / Stroke.CHUNK_SIZE, point), "chunk misses point " + i);
+                if (i > 0 && i % Stroke.CHUNK_SIZE == 0) {
+                    assertTrue(stroke.chunkIntersects(i / Stroke.CHUNK_SIZE - 1, point), "chunk misses segment end " + i);
+                }
+            }
+        }
+        assertEquals(new Bounds(minX, minY, maxX, maxY), stroke.getBounds());
+    }
+
+    private static List<float[]> triangles(Stroke stroke, Bounds visible) {
+        List<float[]> triangles = new ArrayList<>();
+        float[][] current = new float[1][];
+        int[] filled = new int[1];
+        StrokeGeometry.tessellate(stroke, visible, (x, y, color) -> {
+            if (filled[0] == 0) {
+                current[0] = new float[6];
+            }
+            current[0][filled[0]++] = x;
+            current[0][filled[0]++] = y;
+            if (filled[0] == 6) {
+                triangles.add(current[0]);
+                filled[0] = 0;
+            }
+        });
+        return triangles;
+    }
+
+    private static boolean intersects(float[] triangle, Bounds region) {
+        float minX = Math.min(triangle[0], Math.min(triangle[2], triangle[4]));
+        float minY = Math.min(triangle[1], Math.min(triangle[3], triangle[5]));
+        float maxX = Math.max(triangle[0], Math.max(triangle[2], triangle[4]));
+        float maxY = Math.max(triangle[1], Math.max(triangle[3], triangle[5]));
+        return region.intersects(new Bounds(minX, minY, maxX, maxY));
+    }
+
+    private static String key(float[] triangle) {
+        StringBuilder builder = new StringBuilder();
+        for (float value : triangle) {
+            builder.append(Float.floatToRawIntBits(value)).append(',');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class StrokeContent {
+    private StrokeContent() {
+    }
+
+    static List<int[]> of(Iterable<Stroke> strokes) {
+        List<int[]> content = new ArrayList<>();
+        for (Stroke stroke : strokes) {
+            int[] values = new int[stroke.getRunCount() * 3 + stroke.getPointCount() * 2];
+            int offset = 0;
+            for (int run = 0; run < stroke.getRunCount(); run++) {
+                values[offset++] = stroke.getRunStart(run);
+                values[offset++] = stroke.getRunColor(run);
+                values[offset++] = Float.floatToRawIntBits(stroke.getRunSize(run));
+            }
+            for (int i = 0; i < stroke.getPointCount(); i++) {
+                values[offset++] = Float.floatToRawIntBits(stroke.getX(i));
+                values[offset++] = Float.floatToRawIntBits(stroke.getY(i));
+            }
+            content.add(values);
+        }
+        return content;
+    }
+
+    static boolean same(List<int[]> a, List<int[]> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Arrays.equals(a.get(i), b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
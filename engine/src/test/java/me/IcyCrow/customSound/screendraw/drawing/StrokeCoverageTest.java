@@ -0,0 +1,46 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StrokeCoverageTest {
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 160;
+    private static final int TRANSLUCENT = 0x80FF0000;
+
+    @Test
+    void bevelJoinsCoverEachPixelOnce() {
+        Stroke stroke = Rasters.stroke(TRANSLUCENT, 14.0f, 20, 140, 40, 20, 60, 140, 80, 20, 100, 140);
+        assertEquals(0x80, maxAlpha(Rasters.render(List.of(stroke), WIDTH, HEIGHT)));
+    }
+
+    @Test
+    void tightZigZagCoversEachPixelOnce() {
+        float[] points = new float[80];
+        for (int i = 0; i < 40; i++) {
+            points[i * 2] = 30 + i * 3.0f;
+            points[i * 2 + 1] = i % 2 == 0 ? 60 : 100;
+        }
+        Stroke stroke = Rasters.stroke(TRANSLUCENT, 10.0f, points);
+        assertEquals(0x80, maxAlpha(Rasters.render(List.of(stroke), WIDTH, HEIGHT)));
+    }
+
+    @Test
+    void separateStrokesStillComposite() {
+        Stroke first = Rasters.stroke(TRANSLUCENT, 10.0f, 20, 80, 180, 80);
+        Stroke second = Rasters.stroke(TRANSLUCENT, 10.0f, 100, 20, 100, 140);
+        assertTrue(maxAlpha(Rasters.render(List.of(first, second), WIDTH, HEIGHT)) > 0x80);
+    }
+
+    private static int maxAlpha(int[] pixels) {
+        int max = 0;
+        for (int pixel : pixels) {
+            max = Math.max(max, Rasters.alpha(pixel));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,99 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+class StrokeFinalizerTest {
+    private static final int COLOR = 0xFF2050A0;
+
+    @Test
+    void endStrokeAndEraseDoNotWaitForTheWorker() {
+        ArrayDeque<Runnable> worker = new ArrayDeque<>();
+        DrawingCanvas canvas = new DrawingCanvas(new DrawingHistory(), new StrokeFinalizer(worker::add));
+
+        line(canvas, 0.0f);
+        line(canvas, 100.0f);
+        assertEquals(2, worker.size());
+        assertEquals(0, canvas.applyFinishedStrokes());
+        assertEquals(201, canvas.getStrokes().get(0).getPointCount());
+
+        erase(canvas, 50.0f);
+        assertTrue(canvas.hasPendingStrokes());
+        assertTrue(canvas.getStrokes().get(0).getPointCount() < 201);
+
+        while (!worker.isEmpty()) {
+            worker.poll().run();
+        }
+        assertEquals(2, canvas.applyFinishedStrokes());
+        assertFalse(canvas.hasPendingStrokes());
+    }
+
+    @Test
+    void finishedCopyOfAnErasedStrokeIsDropped() {
+        ArrayDeque<Runnable> worker = new ArrayDeque<>();
+        DrawingCanvas canvas = new DrawingCanvas(new DrawingHistory(), new StrokeFinalizer(worker::add));
+
+        line(canvas, 0.0f);
+        Stroke raw = canvas.getStrokes().get(0);
+        erase(canvas, 100.0f);
+        assertNotSame(raw, canvas.getStrokes().get(0));
+        List<int[]> erased = StrokeContent.of(canvas.getStrokeList());
+
+        worker.poll().run();
+        assertEquals(1, canvas.applyFinishedStrokes());
+        assertTrue(StrokeContent.same(erased, StrokeContent.of(canvas.getStrokeList())));
+
+        assertTrue(canvas.undo());
+        assertEquals(201, canvas.getStrokes().get(0).getPointCount());
+        erase(canvas, 150.0f);
+        assertTrue(canvas.getStrokes().get(0).getPointCount() < 201);
+    }
+
+    @Test
+    void finishedStrokesAreIndexedWithWorkerCells() {
+        ArrayDeque<Runnable> worker = new ArrayDeque<>();
+        DrawingCanvas canvas = new DrawingCanvas(new DrawingHistory(), new StrokeFinalizer(worker::add));
+
+        line(canvas, 0.0f);
+        worker.poll().run();
+        assertEquals(1, canvas.applyFinishedStrokes());
+        Stroke finalized = canvas.getStrokes().get(0);
+        assertEquals(2, finalized.getPointCount());
+
+        erase(canvas, 100.0f);
+        assertNotSame(finalized, canvas.getStrokes().get(0));
+        assertEquals(2, canvas.getStrokes().get(0).getRunCount());
+    }
+
+    private static void line(DrawingCanvas canvas, float y) {
+        BrushSettings brush = canvas.getBrushSettings();
+        brush.setToolMode(ToolMode.BRUSH);
+        brush.setSmoothingEnabled(false);
+        brush.setSimplifyTolerance(0.5f);
+        brush.setColor(COLOR);
+        brush.setLineWidth(4.0f);
+        canvas.startStroke(0.0f, y);
+        for (int x = 1; x <= 200; x++) {
+            canvas.continueStroke(x, y);
+        }
+        canvas.endStroke();
+    }
+
+    private static void erase(DrawingCanvas canvas, float x) {
+        BrushSettings brush = canvas.getBrushSettings();
+        brush.setToolMode(ToolMode.ERASER);
+        brush.setLineWidth(12.0f);
+        canvas.startStroke(x, -20.0f);
+        canvas.continueStroke(x, 20.0f);
+        canvas.endStroke();
+    }
+}
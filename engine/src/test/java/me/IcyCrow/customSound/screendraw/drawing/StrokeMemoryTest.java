@@ -0,0 +1,62 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StrokeMemoryTest {
+    private static final int STROKES = 2_000;
+    private static final int POINTS = 500;
+    private static final int COLOR = 0xFF336699;
+    private static final float SIZE = 3.0f;
+
+    @Test
+    void primitiveStorageRetainsLessThanHalfOfBoxedPoints() {
+        long primitive = Heap.retained(StrokeMemoryTest::primitiveStrokes);
+        long boxed = Heap.retained(StrokeMemoryTest::boxedStrokes);
+        long points = (long) STROKES * POINTS;
+        assertTrue(primitive * 2 < boxed,
+                "primitive " + primitive / points + " B/point vs boxed " + boxed / points + " B/point");
+        assertTrue(primitive / points <= 16, "primitive storage retains " + primitive / points + " B/point");
+    }
+
+    @Test
+    void estimatedBytesTrackRetainedSize() {
+        Stroke[][] holder = new Stroke[1][];
+        long retained = Heap.retained(() -> holder[0] = primitiveStrokes());
+        long estimated = 0;
+        for (Stroke stroke : holder[0]) {
+            estimated += stroke.estimateBytes();
+        }
+        assertTrue(retained <= estimated * 5 / 4, "retained " + retained + " B, estimated " + estimated + " B");
+        assertTrue(estimated <= retained * 2, "retained " + retained + " B, estimated " + estimated + " B");
+    }
+
+    private static Stroke[] primitiveStrokes() {
+        Stroke[] strokes = new Stroke[STROKES];
+        for (int i = 0; i < STROKES; i++) {
+            Stroke stroke = new Stroke();
+            for (int j = 0; j < POINTS; j++) {
+                stroke.addVertex(j * 2.0f, i + (j & 7), COLOR, SIZE);
+            }
+            stroke.complete();
+            strokes[i] = stroke;
+        }
+        return strokes;
+    }
+
+    private static List<List<DrawPoint>> boxedStrokes() {
+        List<List<DrawPoint>> strokes = new ArrayList<>(STROKES);
+        for (int i = 0; i < STROKES; i++) {
+            List<DrawPoint> points = new ArrayList<>();
+            for (int j = 0; j < POINTS; j++) {
+                points.add(new DrawPoint(j * 2, i + (j & 7), COLOR, SIZE));
+            }
+            strokes.add(points);
+        }
+        return strokes;
+    }
+}
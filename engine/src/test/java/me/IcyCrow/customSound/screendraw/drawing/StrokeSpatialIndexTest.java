@@ -0,0 +1,68 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StrokeSpatialIndexTest {
+    private static final int COLOR = 0xFF2050A0;
+
+    @Test
+    void longDiagonalOnlyCoversCrossedCells() {
+        StrokeSpatialIndex index = new StrokeSpatialIndex(64);
+        long[] cells = index.cellsOf(Rasters.stroke(COLOR, 4.0f, 0.0f, 0.0f, 6_400.0f, 6_400.0f));
+        assertTrue(cells.length < 500, "diagonal covers " + cells.length + " cells");
+
+        Set<Long> unique = new HashSet<>();
+        for (long cell : cells) {
+            unique.add(cell);
+        }
+        assertEquals(cells.length, unique.size());
+    }
+
+    @Test
+    void queryFindsEveryStrokeTheEraserHits() {
+        Random random = new Random(12L);
+        List<Stroke> strokes = new ArrayList<>();
+        StrokeSpatialIndex index = new StrokeSpatialIndex(64);
+        for (int i = 0; i < 200; i++) {
+            float[] coordinates = new float[2 * (2 + random.nextInt(4))];
+            for (int j = 0; j < coordinates.length; j++) {
+                coordinates[j] = random.nextFloat() * 2_000.0f - 500.0f;
+            }
+            Stroke stroke = Rasters.stroke(COLOR, 1.0f + random.nextInt(30), coordinates);
+            strokes.add(stroke);
+            index.add(stroke);
+        }
+
+        List<Stroke> candidates = new ArrayList<>();
+        int hits = 0;
+        for (int probe = 0; probe < 2_000; probe++) {
+            float x = random.nextFloat() * 2_000.0f - 500.0f;
+            float y = random.nextFloat() * 2_000.0f - 500.0f;
+            float radius = 2.0f + random.nextInt(20);
+            float reach = radius + BrushSettings.getMaxLineWidth() / 2.0f * StrokeGeometry.MITER_LIMIT;
+            index.query(new Bounds(x - reach, y - reach, x + reach, y + reach), candidates);
+
+            Set<Stroke> found = Collections.newSetFromMap(new IdentityHashMap<>());
+            found.addAll(candidates);
+            assertEquals(candidates.size(), found.size());
+            for (Stroke stroke : strokes) {
+                if (stroke.erasedCapsule(x, y, x, y, radius) != null) {
+                    hits++;
+                    assertTrue(found.contains(stroke), "query missed a stroke under the eraser at probe " + probe);
+                }
+            }
+        }
+        assertTrue(hits > 100);
+    }
+}
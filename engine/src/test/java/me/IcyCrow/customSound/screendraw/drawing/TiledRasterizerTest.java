@@ -0,0 +1,144 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TiledRasterizerTest {
+    private static final int WIDTH = 700;
+    private static final int HEIGHT = 530;
+    private static final float SHIFT = TiledRasterizer.TILE_SIZE / 2.0f;
+
+    @Test
+    void parallelTilesMatchSingleThreadedOutput() {
+        List<Stroke> strokes = scene(0.0f);
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            for (float scale : new float[]{1.0f, 2.5f}) {
+                int width = Math.round(WIDTH * scale);
+                int height = Math.round(HEIGHT * scale);
+                int[] expected = Rasters.render(Rasters.singleThreaded(), strokes, width, height, scale);
+                assertTrue(painted(expected) > width * height / 20, "scene barely covers the canvas");
+                for (int run = 0; run < 3; run++) {
+                    int[] actual = Rasters.render(new TiledRasterizer(pool), strokes, width, height, scale);
+                    assertPixelsEqual(expected, actual, width);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void tileSeamsDoNotChangePixels() {
+        int[] aligned = Rasters.render(Rasters.singleThreaded(), scene(0.0f), WIDTH, HEIGHT);
+        int shift = (int) SHIFT;
+        int[] shifted = Rasters.render(Rasters.singleThreaded(), scene(SHIFT), WIDTH + shift, HEIGHT + shift);
+        int[] window = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            System.arraycopy(shifted, (y + shift) * (WIDTH + shift) + shift, window, y * WIDTH, WIDTH);
+        }
+        assertPixelsClose(aligned, window, WIDTH, 1);
+    }
+
+    @Test
+    void partialEdgeTilesMatchTheFullCanvas() {
+        List<Stroke> strokes = scene(0.0f);
+        int[] full = Rasters.render(Rasters.singleThreaded(), strokes, WIDTH, HEIGHT);
+        int width = 301;
+        int height = 157;
+        int[] cropped = Rasters.render(strokes, width, height);
+        int[] window = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(full, y * WIDTH, window, y * width, width);
+        }
+        assertPixelsEqual(window, cropped, width);
+    }
+
+    @Test
+    void worldOriginMatchesTranslatedStrokes() {
+        float worldX = -3.0f * TiledRasterizer.TILE_SIZE + 37.0f;
+        float worldY = 5.0f * TiledRasterizer.TILE_SIZE + 11.0f;
+        List<Stroke> moved = new ArrayList<>();
+        for (Stroke stroke : scene(0.0f)) {
+            moved.add(translated(stroke, worldX, worldY));
+        }
+        int[] expected = Rasters.render(Rasters.singleThreaded(), scene(0.0f), WIDTH, HEIGHT);
+        int[] actual = Rasters.render(Rasters.singleThreaded(), moved, worldX, worldY, WIDTH, HEIGHT, 1.0f);
+        assertPixelsClose(expected, actual, WIDTH, 1);
+    }
+
+    private static List<Stroke> scene(float offset) {
+        List<Stroke> strokes = new ArrayList<>();
+        for (Stroke stroke : Rasters.strokes(60, 80, 17L)) {
+            strokes.add(shifted(stroke, offset, 0.6f));
+        }
+        strokes.add(Rasters.stroke(0x80FF4020, 9.0f,
+                offset + 5.0f, offset + 127.5f, offset + 690.0f, offset + 129.0f));
+        strokes.add(Rasters.stroke(0x6020A0FF, 14.0f,
+                offset + 256.0f, offset + 3.0f, offset + 255.0f, offset + 520.0f));
+        strokes.add(Rasters.stroke(0xFF000000, 3.0f,
+                offset + 120.0f, offset + 120.0f, offset + 136.0f, offset + 136.0f, offset + 120.0f, offset + 140.0f));
+        return strokes;
+    }
+
+    private static Stroke shifted(Stroke source, float offset, float scale) {
+        Stroke stroke = new Stroke();
+        for (int run = 0; run < source.getRunCount(); run++) {
+            for (int i = source.getRunStart(run); i < source.getRunEnd(run); i++) {
+                stroke.addVertex(offset + snap(source.getX(i) * scale), offset + snap(source.getY(i) * scale),
+                        source.getRunColor(run), source.getRunSize(run));
+            }
+        }
+        stroke.complete();
+        return stroke;
+    }
+
+    private static Stroke translated(Stroke source, float dx, float dy) {
+        Stroke stroke = new Stroke();
+        for (int run = 0; run < source.getRunCount(); run++) {
+            for (int i = source.getRunStart(run); i < source.getRunEnd(run); i++) {
+                stroke.addVertex(source.getX(i) + dx, source.getY(i) + dy, source.getRunColor(run), source.getRunSize(run));
+            }
+        }
+        stroke.complete();
+        return stroke;
+    }
+
+    private static float snap(float coordinate) {
+        return Math.round(coordinate * Stroke.VERTEX_PRECISION) / Stroke.VERTEX_PRECISION;
+    }
+
+    private static int painted(int[] pixels) {
+        int count = 0;
+        for (int pixel : pixels) {
+            if (pixel != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void assertPixelsEqual(int[] expected, int[] actual, int width) {
+        assertPixelsClose(expected, actual, width, 0);
+    }
+
+    private static void assertPixelsClose(int[] expected, int[] actual, int width, int tolerance) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            int lowestChannel = Math.max(Rasters.alpha(expected[i]), Rasters.alpha(actual[i])) <= tolerance ? 24 : 0;
+            for (int shift = lowestChannel; shift < 32; shift += 8) {
+                int difference = Math.abs(((expected[i] >>> shift) & 0xFF) - ((actual[i] >>> shift) & 0xFF));
+                if (difference > tolerance) {
+                    assertEquals(Integer.toHexString(expected[i]), Integer.toHexString(actual[i]),
+                            "pixel " + i % width + "," + i / width);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import com.mojang.blaze3d.platform.GlConst;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.Framebuffer;
+import net.minecraft.client.gl.ShaderProgramKeys;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.Window;
+import net.minecraft.client.util.math.MatrixStack;
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL11;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CanvasLayer implements AutoCloseable {
+    private static final int MAX_PENDING_REGIONS = 64;
+
+    private final CanvasRenderer<MatrixStack> renderer;
+    private final List<Bounds> pendingRegions = new ArrayList<>();
+    private Framebuffer framebuffer;
+    private Framebuffer repaintBuffer;
+    private Framebuffer strokeBuffer;
+    private boolean unavailable;
+    private boolean needsFullRepaint = true;
+    private boolean layerCurrent;
+    private int repaintIndex = -1;
+    private boolean staleDetail;
+    private int cameraRevision;
+
+    public CanvasLayer() {
+        this(StrokeRenderer.INSTANCE);
+    }
+
+    public CanvasLayer(CanvasRenderer<MatrixStack> renderer) {
+        this.renderer = renderer;
+    }
+
+    public void render(DrawingCanvas canvas, MatrixStack matrices) {
+        StrokeRenderer.beginFrame();
+        if (!ensureFramebuffer()) {
+            StrokeRenderer.renderCanvas(canvas, matrices);
+            return;
+        }
+
+        CanvasCamera camera = canvas.getCamera();
+        if (camera.getRevision() != cameraRevision) {
+            cameraRevision = camera.getRevision();
+            layerCurrent = false;
+            needsFullRepaint = true;
+            repaintIndex = -1;
+        }
+
+        CanvasDamage damage = canvas.consumeDamage();
+        if (damage.full()) {
+            needsFullRepaint = true;
+        }
+        if (layerCurrent && !damage.regions().isEmpty()) {
+            repaintRegions(framebuffer, canvas, damage.regions(), matrices);
+        }
+        if (repaintIndex >= 0) {
+            queueRegions(damage.regions());
+        } else if (needsFullRepaint) {
+            needsFullRepaint = false;
+            pendingRegions.clear();
+            repaintIndex = 0;
+        }
+        if (repaintIndex >= 0) {
+            continueRepaint(canvas, matrices);
+        }
+
+        composite(framebuffer, GlStateManager.SrcFactor.ONE, matrices);
+
+        Stroke currentStroke = canvas.getCurrentStroke();
+        if (currentStroke != null && !currentStroke.isEmpty()) {
+            paintCurrentStroke(currentStroke, camera, matrices);
+            composite(strokeBuffer, GlStateManager.SrcFactor.SRC_ALPHA, matrices);
+        }
+    }
+
+    public void invalidate() {
+        needsFullRepaint = true;
+    }
+
+    public boolean isRepainting() {
+        return repaintIndex >= 0;
+    }
+
+    public boolean isAvailable() {
+        return !unavailable;
+    }
+
+    @Override
+    public void close() {
+        if (framebuffer != null) {
+            framebuffer.delete();
+            framebuffer = null;
+        }
+        if (repaintBuffer != null) {
+            repaintBuffer.delete();
+            repaintBuffer = null;
+        }
+        if (strokeBuffer != null) {
+            strokeBuffer.delete();
+            strokeBuffer = null;
+        }
+        needsFullRepaint = true;
+        layerCurrent = false;
+        repaintIndex = -1;
+        pendingRegions.clear();
+    }
+
+    private boolean ensureFramebuffer() {
+        if (unavailable) {
+            return false;
+        }
+
+        Window window = MinecraftClient.getInstance().getWindow();
+        int width = Math.max(1, window.getFramebufferWidth());
+        int height = Math.max(1, window.getFramebufferHeight());
+        try {
+            if (framebuffer == null) {
+                framebuffer = new SimpleFramebuffer(width, height, true);
+                framebuffer.setClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+                repaintBuffer = new SimpleFramebuffer(width, height, true);
+                repaintBuffer.setClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+                strokeBuffer = new SimpleFramebuffer(width, height, false);
+                strokeBuffer.setClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+                resetLayer();
+            } else if (framebuffer.textureWidth != width || framebuffer.textureHeight != height) {
+                framebuffer.resize(width, height);
+                repaintBuffer.resize(width, height);
+                strokeBuffer.resize(width, height);
+                resetLayer();
+            }
+        } catch (RuntimeException exception) {
+            close();
+            unavailable = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void resetLayer() {
+        framebuffer.beginWrite(true);
+        clearFramebuffer();
+        MinecraftClient.getInstance().getFramebuffer().beginWrite(true);
+        needsFullRepaint = true;
+        layerCurrent = false;
+        repaintIndex = -1;
+    }
+
+    private void queueRegions(List<Bounds> regions) {
+        if (pendingRegions.size() + regions.size() > MAX_PENDING_REGIONS) {
+            pendingRegions.clear();
+            needsFullRepaint = true;
+        } else if (!needsFullRepaint) {
+            pendingRegions.addAll(regions);
+        }
+    }
+
+    private void continueRepaint(DrawingCanvas canvas, MatrixStack matrices) {
+        CanvasCamera camera = canvas.getCamera();
+        beginPaint(repaintBuffer, camera, matrices);
+        if (repaintIndex == 0) {
+            clearFramebuffer();
+        }
+        int next = renderer.renderStrokes(canvas, camera.toWorld(StrokeRenderer.viewport()),
+                repaintIndex, StrokeRenderer.MAX_FRAME_VERTICES, matrices);
+        endPaint(matrices);
+        staleDetail |= StrokeRenderer.hasDeferredRebakes();
+        if (next < canvas.getStrokeList().size()) {
+            repaintIndex = next;
+            return;
+        }
+
+        repaintIndex = -1;
+        Framebuffer completed = repaintBuffer;
+        repaintBuffer = framebuffer;
+        framebuffer = completed;
+        layerCurrent = true;
+        if (!pendingRegions.isEmpty()) {
+            repaintRegions(framebuffer, canvas, pendingRegions, matrices);
+            pendingRegions.clear();
+        }
+        if (staleDetail) {
+            staleDetail = false;
+            needsFullRepaint = true;
+        }
+    }
+
+    private void repaintRegions(Framebuffer target, DrawingCanvas canvas, List<Bounds> regions, MatrixStack matrices) {
+        CanvasCamera camera = canvas.getCamera();
+        beginPaint(target, camera, matrices);
+        for (Bounds region : regions) {
+            if (!scissor(camera.toScreen(region))) {
+                continue;
+            }
+            clearFramebuffer();
+            int next = renderer.renderStrokes(canvas, region, 0, StrokeRenderer.MAX_FRAME_VERTICES, matrices);
+            if (next < canvas.getStrokeList().size()) {
+                needsFullRepaint = true;
+            }
+        }
+        RenderSystem.disableScissor();
+        endPaint(matrices);
+        staleDetail |= StrokeRenderer.hasDeferredRebakes();
+    }
+
+    private static void beginPaint(Framebuffer target, CanvasCamera camera, MatrixStack matrices) {
+        target.beginWrite(true);
+        RenderSystem.enableDepthTest();
+        RenderSystem.depthFunc(GL11.GL_LESS);
+        RenderSystem.depthMask(true);
+        StrokeRenderer.setCoverageDepth(true);
+        RenderSystem.enableBlend();
+        RenderSystem.blendFuncSeparate(
+                GlStateManager.SrcFactor.SRC_ALPHA, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA,
+                GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA
+        );
+        RenderSystem.disableCull();
+        StrokeRenderer.pushCamera(matrices, camera);
+    }
+
+    private static void endPaint(MatrixStack matrices) {
+        matrices.pop();
+        StrokeRenderer.setCoverageDepth(false);
+        RenderSystem.depthFunc(GL11.GL_LEQUAL);
+        RenderSystem.enableCull();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+        MinecraftClient.getInstance().getFramebuffer().beginWrite(true);
+    }
+
+    private void paintCurrentStroke(Stroke stroke, CanvasCamera camera, MatrixStack matrices) {
+        strokeBuffer.beginWrite(true);
+        RenderSystem.clearColor(0.0f, 0.0f, 0.0f, 0.0f);
+        RenderSystem.clear(GlConst.GL_COLOR_BUFFER_BIT);
+        RenderSystem.disableBlend();
+        RenderSystem.disableCull();
+        StrokeRenderer.pushCamera(matrices, camera);
+        renderer.renderCurrentStroke(stroke, camera.toWorld(StrokeRenderer.viewport()), matrices);
+        matrices.pop();
+        RenderSystem.enableCull();
+        MinecraftClient.getInstance().getFramebuffer().beginWrite(true);
+    }
+
+    private boolean scissor(Bounds region) {
+        double scale = MinecraftClient.getInstance().getWindow().getScaleFactor();
+        int x1 = Math.max(0, (int) Math.floor(region.minX() * scale));
+        int x2 = Math.min(framebuffer.textureWidth, (int) Math.ceil(region.maxX() * scale));
+        int y1 = Math.max(0, framebuffer.textureHeight - (int) Math.ceil(region.maxY() * scale));
+        int y2 = Math.min(framebuffer.textureHeight, framebuffer.textureHeight - (int) Math.floor(region.minY() * scale));
+        if (x2 <= x1 || y2 <= y1) {
+            return false;
+        }
+        RenderSystem.enableScissor(x1, y1, x2 - x1, y2 - y1);
+        return true;
+    }
+
+    private static void clearFramebuffer() {
+        RenderSystem.clearColor(0.0f, 0.0f, 0.0f, 0.0f);
+        RenderSystem.clearDepth(1.0);
+        RenderSystem.clear(GlConst.GL_COLOR_BUFFER_BIT | GlConst.GL_DEPTH_BUFFER_BIT);
+    }
+
+    private static void composite(Framebuffer source, GlStateManager.SrcFactor sourceFactor, MatrixStack matrices) {
+        Window window = MinecraftClient.getInstance().getWindow();
+        float width = window.getScaledWidth();
+        float height = window.getScaledHeight();
+        Matrix4f matrix = matrices.peek().getPositionMatrix();
+
+        RenderSystem.setShader(ShaderProgramKeys.POSITION_TEX);
+        RenderSystem.setShaderTexture(0, source.getColorAttachment());
+        RenderSystem.enableBlend();
+        RenderSystem.blendFunc(sourceFactor, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        BufferBuilder builder = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+        builder.vertex(matrix, 0, height, 0).texture(0.0f, 0.0f);
+        builder.vertex(matrix, width, height, 0).texture(1.0f, 0.0f);
+        builder.vertex(matrix, width, 0, 0).texture(1.0f, 1.0f);
+        builder.vertex(matrix, 0, 0, 0).texture(0.0f, 1.0f);
+        BufferRenderer.drawWithGlobalProgram(builder.end());
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+    }
+}
@@ -0,0 +1,93 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.DoubleConsumer;
+
+public final class DrawingFiles {
+    private static final String HISTORY_BUDGET_KEY = "historyBudgetMb";
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    private DrawingFiles() {
+    }
+
+    public static Path getDirectory() {
+        return FabricLoader.getInstance().getGameDir().resolve("screendraw");
+    }
+
+    public static Path getDrawingsDirectory() {
+        return getDirectory().resolve("drawings");
+    }
+
+    public static Path getExportsDirectory() {
+        return getDirectory().resolve("exports");
+    }
+
+    public static Path getHistoryDirectory() {
+        return getDirectory().resolve("history");
+    }
+
+    public static Path getTracesDirectory() {
+        return getDirectory().resolve("traces");
+    }
+
+    public static Path getSettingsFile() {
+        return getDirectory().resolve("settings.properties");
+    }
+
+    public static long loadHistoryBudget() {
+        Path file = getSettingsFile();
+        if (!Files.isRegularFile(file)) {
+            return DrawingHistory.DEFAULT_BYTE_BUDGET;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            String value = properties.getProperty(HISTORY_BUDGET_KEY);
+            return value != null ? Math.max(0L, Long.parseLong(value.trim())) * MEGABYTE : DrawingHistory.DEFAULT_BYTE_BUDGET;
+        } catch (IOException | NumberFormatException exception) {
+            return DrawingHistory.DEFAULT_BYTE_BUDGET;
+        }
+    }
+
+    public static void saveHistoryBudget(long bytes) throws IOException {
+        Path file = getSettingsFile();
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        properties.setProperty(HISTORY_BUDGET_KEY, Long.toString(bytes / MEGABYTE));
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "ScreenDraw settings");
+        }
+    }
+
+    public static Path save(List<Stroke> strokes, BrushSettings brush, int width, int height,
+                            DoubleConsumer progress) throws IOException {
+        return DrawingFile.save(getDrawingsDirectory(), strokes, brush, width, height, progress);
+    }
+
+    public static SavedDrawing load(DoubleConsumer progress) throws IOException {
+        return DrawingFile.load(getDrawingsDirectory(), progress);
+    }
+
+    public static Path exportPng(List<Stroke> strokes, Bounds region, DrawingExport.Size size,
+                                 DoubleConsumer progress) throws IOException {
+        return DrawingExport.exportPng(getExportsDirectory(), strokes, region, size, progress);
+    }
+
+    public static Path saveTrace(InputTrace trace) throws IOException {
+        return trace.save(getTracesDirectory());
+    }
+}
@@ -1,5 +1,6 @@
 package me.IcyCrow.customSound.screendraw.drawing;
 
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.util.math.MatrixStack;
@@ -7,38 +8,68 @@ import net.minecraft.text.Text;
 import org.lwjgl.glfw.GLFW;
 
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 public class DrawingScreen extends Screen {
-    private static final DrawingCanvas SHARED_CANVAS = new DrawingCanvas(0, 0);
+    private static final DrawingCanvas SHARED_CANVAS = new DrawingCanvas(new DrawingHistory(
+            DrawingFiles.loadHistoryBudget(), DrawingFiles.getHistoryDirectory()), StrokeFinalizer.background());
+    private static final CanvasCommandQueue SHARED_COMMANDS = new CanvasCommandQueue(SHARED_CANVAS);
+    private static final ColorPicker SHARED_COLOR_PICKER = new ColorPicker(0, 0);
+    private static InputTraceRecorder traceRecorder;
     private static final int TOOLBAR_X = 8;
     private static final int TOOLBAR_Y = 8;
     private static final int TOOLBAR_HEIGHT = 18;
     private static final int TOOLBAR_GAP = 3;
     private static final int STATUS_TICKS = 80;
+    private static final float EXPORT_SUPERSAMPLE = 4.0f;
+    private static final float ZOOM_STEP = 1.25f;
+    private static final long[] HISTORY_BUDGETS_MB = {8L, 16L, 32L, 64L, 128L, 256L, 512L};
+    private static final ExecutorService FILE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ScreenDraw File IO");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final DrawingCanvas canvas;
+    private final CanvasCommandQueue commands;
+    private final ColorPicker colorPicker;
+    private final CanvasLayer canvasLayer = new CanvasLayer();
     private Text statusText = Text.empty();
     private int statusTicks = 0;
+    private Future<?> fileJob;
+    private int fileJobId;
+    private String fileJobKey;
+    private volatile float fileJobProgress;
 
     public DrawingScreen() {
         super(Text.of("Drawing Screen"));
         this.canvas = SHARED_CANVAS;
+        this.commands = SHARED_COMMANDS;
+        this.commands.setDragHandler(DrawingScreen::applyDrag);
+        this.colorPicker = SHARED_COLOR_PICKER;
     }
 
     @Override
     protected void init() {
-        canvas.updateColorPickerPosition(width, height);
+        colorPicker.setPosition(width / 2, height / 2);
     }
 
     @Override
     public void tick() {
         super.tick();
-        canvas.getColorPicker().tick();
-        if (statusTicks > 0) {
+        commands.drain();
+        reportHistoryErrors();
+        colorPicker.tick();
+        if (fileJobKey != null) {
+            updateFileJobStatus();
+        } else if (statusTicks > 0) {
             statusTicks--;
         }
     }
@@ -50,13 +81,19 @@ public class DrawingScreen extends Screen {
                 return true;
             }
 
-            if (canvas.getColorPicker().handleMouseClick(mouseX, mouseY)) {
-                canvas.getBrushSettings().setColor(canvas.getColorPicker().getSelectedColor());
-                canvas.setToolMode(ToolMode.BRUSH);
+            if (colorPicker.handleMouseClick(mouseX, mouseY)) {
+                dispatch(InputEvent.color(colorPicker.getSelectedColor()));
+                dispatch(InputEvent.tool(ToolMode.BRUSH));
+                return true;
+            }
+            if (colorPicker.isVisible()) {
+                if (!colorPicker.isPointInside(mouseX, mouseY)) {
+                    colorPicker.hide();
+                }
                 return true;
             }
 
-            canvas.startStroke((int) mouseX, (int) mouseY);
+            dispatch(InputEvent.pointer(InputEvent.Type.PRESS, mouseX, mouseY));
             return true;
         }
         return super.mouseClicked(mouseX, mouseY, button);
@@ -64,8 +101,12 @@ public class DrawingScreen extends Screen {
 
     @Override
     public boolean mouseDragged(double mouseX, double mouseY, int button, double deltaX, double deltaY) {
-        if (button == GLFW.GLFW_MOUSE_BUTTON_LEFT && canvas.isDrawing()) {
-            canvas.continueStroke((int) mouseX, (int) mouseY);
+        if (button == GLFW.GLFW_MOUSE_BUTTON_LEFT && !colorPicker.isVisible()) {
+            commands.submitDrag(mouseX, mouseY);
+            return true;
+        }
+        if (button == GLFW.GLFW_MOUSE_BUTTON_MIDDLE) {
+            dispatch(InputEvent.pan(deltaX, deltaY));
             return true;
         }
         return super.mouseDragged(mouseX, mouseY, button, deltaX, deltaY);
@@ -74,7 +115,7 @@ public class DrawingScreen extends Screen {
     @Override
     public boolean mouseReleased(double mouseX, double mouseY, int button) {
         if (button == GLFW.GLFW_MOUSE_BUTTON_LEFT) {
-            canvas.endStroke();
+            dispatch(InputEvent.pointer(InputEvent.Type.RELEASE, mouseX, mouseY));
             return true;
         }
         return super.mouseReleased(mouseX, mouseY, button);
@@ -82,31 +123,42 @@ public class DrawingScreen extends Screen {
 
     @Override
     public void mouseMoved(double mouseX, double mouseY) {
-        canvas.getColorPicker().handleMouseMove(mouseX, mouseY);
+        colorPicker.handleMouseMove(mouseX, mouseY);
         super.mouseMoved(mouseX, mouseY);
     }
 
     @Override
     public boolean mouseScrolled(double mouseX, double mouseY, double horizontalAmount, double verticalAmount) {
         if (verticalAmount != 0) {
-            if (Screen.hasShiftDown()) {
-                return canvas.adjustOpacity((float) verticalAmount * 0.05f);
+            if (Screen.hasControlDown()) {
+                dispatch(InputEvent.zoom(mouseX, mouseY, (float) Math.pow(ZOOM_STEP, verticalAmount)));
+            } else if (Screen.hasShiftDown()) {
+                dispatch(InputEvent.adjust(InputEvent.Type.OPACITY, (float) verticalAmount * 0.05f));
+            } else {
+                dispatch(InputEvent.adjust(InputEvent.Type.BRUSH_SIZE, (float) verticalAmount * 0.5f));
             }
-            return canvas.adjustBrushSize((float) verticalAmount * 0.5f);
+            return true;
         }
         return super.mouseScrolled(mouseX, mouseY, horizontalAmount, verticalAmount);
     }
 
     @Override
     public void render(DrawContext context, int mouseX, int mouseY, float delta) {
-        StrokeRenderer.renderStrokes(canvas.getStrokes(), canvas.getCurrentStroke(), context.getMatrices());
-        canvas.getColorPicker().render(context);
+        DrawingMetrics.frame();
+        commands.drain();
+        long renderStarted = DrawingMetrics.start();
+        canvasLayer.render(canvas, context.getMatrices());
+        DrawingMetrics.stop(DrawingMetrics.Timer.RENDER, renderStarted);
+        colorPicker.render(context);
         super.render(context, mouseX, mouseY, delta);
         renderToolbar(context);
         renderInfo(context);
         renderColorSlots(context);
         renderBrushPreview(context, mouseX, mouseY);
         renderStatus(context);
+        if (DrawingMetrics.isEnabled()) {
+            renderDiagnostics(context);
+        }
     }
 
     private void renderToolbar(DrawContext context) {
@@ -170,6 +222,81 @@ public class DrawingScreen extends Screen {
         int colorTextWidth = this.textRenderer.getWidth(colorInfoText);
         context.drawTextWithShadow(this.textRenderer, colorInfoText, this.width - colorTextWidth - 10, statsY + 45, 0xFFFFFFFF);
         renderColorIndicator(context, brush.getEffectiveColor(), this.width - colorTextWidth - 27, statsY + 45, 12);
+
+        Text pointsText = Text.translatable(
+                "gui.screendraw.points",
+                canvas.getTotalPointCount(),
+                canvas.getLastStrokeInputPoints(),
+                canvas.getLastStrokePoints()
+        );
+        drawRightAligned(context, pointsText, statsY + 60, 0xFFDDDDDD);
+
+        Text viewText = Text.translatable(
+                "gui.screendraw.view",
+                Math.round(canvas.getCamera().getZoom() * 100.0f)
+        );
+        drawRightAligned(context, viewText, statsY + 75, 0xFFDDDDDD);
+
+        if (traceRecorder != null) {
+            Text traceText = Text.translatable("gui.screendraw.trace.recording", traceRecorder.size());
+            drawRightAligned(context, traceText, statsY + 90, 0xFFFF5555);
+        }
+    }
+
+    private void renderDiagnostics(DrawContext context) {
+        DrawingHistory history = canvas.getHistory();
+        DrawingMetrics.Series render = DrawingMetrics.timer(DrawingMetrics.Timer.RENDER);
+        DrawingMetrics.Series erase = DrawingMetrics.timer(DrawingMetrics.Timer.ERASE);
+        DrawingMetrics.Series smoothing = DrawingMetrics.timer(DrawingMetrics.Timer.SMOOTHING);
+        DrawingMetrics.Series simplify = DrawingMetrics.timer(DrawingMetrics.Timer.SIMPLIFY);
+        DrawingMetrics.Series allocated = DrawingMetrics.allocatedBytesPerFrame();
+
+        List<Text> lines = List.of(
+                Text.translatable("gui.screendraw.diagnostics.render",
+                        formatMillis(render.average()), formatMillis(render.max()),
+                        Text.translatable("gui.screendraw.renderer." + StrokeRenderer.getBackend().name().toLowerCase(Locale.ROOT))),
+                Text.translatable("gui.screendraw.diagnostics.vertices",
+                        DrawingMetrics.perFrame(DrawingMetrics.Counter.VERTICES).last()),
+                Text.translatable("gui.screendraw.diagnostics.strokes",
+                        canvas.getStrokeCount(), canvas.getTotalPointCount()),
+                Text.translatable("gui.screendraw.diagnostics.history",
+                        history.getUndoHistorySize(), history.getSpilledStateCount(),
+                        formatBytes(history.getSpillFileBytes()), formatBytes(history.getResidentBytes()), formatBytes(history.getByteBudget())),
+                Text.translatable("gui.screendraw.diagnostics.erase",
+                        formatMillis(erase.average()), formatMillis(erase.max())),
+                Text.translatable("gui.screendraw.diagnostics.stroke_end",
+                        formatMillis(smoothing.last()), formatMillis(simplify.last())),
+                DrawingMetrics.isAllocationTrackingSupported()
+                        ? Text.translatable("gui.screendraw.diagnostics.allocated",
+                                formatBytes(Math.round(allocated.average())), formatBytes(allocated.max()))
+                        : Text.translatable("gui.screendraw.diagnostics.allocated_unsupported")
+        );
+
+        int lineHeight = 11;
+        int boxWidth = 0;
+        for (Text line : lines) {
+            boxWidth = Math.max(boxWidth, textRenderer.getWidth(line));
+        }
+        int x = this.width - boxWidth - 14;
+        int y = this.height - lines.size() * lineHeight - 12;
+        context.fill(x - 4, y - 4, x + boxWidth + 4, y + lines.size() * lineHeight + 2, 0xAA000000);
+        for (int i = 0; i < lines.size(); i++) {
+            context.drawTextWithShadow(textRenderer, lines.get(i), x, y + i * lineHeight, 0xFFB0FFB0);
+        }
+    }
+
+    private static String formatMillis(double nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024L) {
+            return bytes + " B";
+        }
+        if (bytes < 1024L * 1024L) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
     }
 
     private void renderColorSlots(DrawContext context) {
@@ -189,12 +316,12 @@ public class DrawingScreen extends Screen {
     }
 
     private void renderBrushPreview(DrawContext context, int mouseX, int mouseY) {
-        if (canvas.getColorPicker().isVisible() || isPointInToolbar(mouseX, mouseY)) {
+        if (colorPicker.isVisible() || isPointInToolbar(mouseX, mouseY)) {
             return;
         }
 
         BrushSettings brush = canvas.getBrushSettings();
-        int size = Math.max(3, Math.round(brush.getLineWidth()));
+        int size = Math.max(3, Math.round(brush.getLineWidth() * canvas.getCamera().getZoom()));
         int half = size / 2;
         int x1 = mouseX - half;
         int y1 = mouseY - half;
@@ -252,15 +379,15 @@ public class DrawingScreen extends Screen {
 
     private void handleToolbarButton(String id) {
         switch (id) {
-            case "brush" -> canvas.setToolMode(ToolMode.BRUSH);
-            case "eraser" -> canvas.setToolMode(ToolMode.ERASER);
+            case "brush" -> dispatch(InputEvent.tool(ToolMode.BRUSH));
+            case "eraser" -> dispatch(InputEvent.tool(ToolMode.ERASER));
             case "undo" -> undo();
             case "redo" -> redo();
             case "clear" -> clear();
             case "save" -> saveDrawing();
             case "load" -> loadDrawing();
-            case "export" -> exportDrawing();
-            case "smoothing" -> canvas.toggleSmoothing();
+            case "export" -> exportDrawing(Screen.hasShiftDown());
+            case "smoothing" -> dispatch(InputEvent.action(InputEvent.Type.TOGGLE_SMOOTHING));
             default -> {
             }
         }
@@ -333,62 +460,217 @@ public class DrawingScreen extends Screen {
         return false;
     }
 
-    private void undo() {
-        if (canvas.undo()) {
-            setStatus(Text.translatable("gui.screendraw.status.undo"));
+    private void toggleRendererBackend() {
+        StrokeRenderer.Backend next = StrokeRenderer.getBackend() == StrokeRenderer.Backend.INSTANCED
+                ? StrokeRenderer.Backend.TESSELLATOR
+                : StrokeRenderer.Backend.INSTANCED;
+        if (!StrokeRenderer.setBackend(next)) {
+            setStatus(Text.translatable("gui.screendraw.status.renderer_unavailable"));
+            return;
         }
+        canvasLayer.invalidate();
+        setStatus(Text.translatable("gui.screendraw.status.renderer",
+                Text.translatable("gui.screendraw.renderer." + next.name().toLowerCase(Locale.ROOT))));
     }
 
-    private void redo() {
-        if (canvas.redo()) {
-            setStatus(Text.translatable("gui.screendraw.status.redo"));
+    private void dispatch(InputEvent event) {
+        dispatch(event, null);
+    }
+
+    private void dispatch(InputEvent event, Runnable onApplied) {
+        commands.submit(target -> {
+            if (traceRecorder != null) {
+                traceRecorder.record(event);
+            }
+            boolean applied = event.apply(target);
+            if (applied && onApplied != null) {
+                onApplied.run();
+            }
+            return applied;
+        });
+    }
+
+    private static void applyDrag(DrawingCanvas target, double x, double y) {
+        if (traceRecorder != null) {
+            traceRecorder.record(InputEvent.pointer(InputEvent.Type.DRAG, x, y));
         }
+        InputEvent.drag(target, x, y);
     }
 
-    private void clear() {
-        if (canvas.clear()) {
-            setStatus(Text.translatable("gui.screendraw.status.cleared"));
+    private void toggleTraceRecording() {
+        if (traceRecorder == null) {
+            commands.drain();
+            traceRecorder = new InputTraceRecorder(canvas);
+            setStatus(Text.translatable("gui.screendraw.status.trace_started"));
+            return;
         }
+        stopTraceRecording();
     }
 
-    private void saveDrawing() {
-        try {
-            Path path = DrawingStorage.save(canvas.getStrokes(), canvas.getBrushSettings(), width, height);
-            setStatus(Text.translatable("gui.screendraw.status.saved", path.getFileName().toString()));
-        } catch (IOException exception) {
-            setStatus(Text.translatable("gui.screendraw.status.error", exception.getMessage()));
+    private void stopTraceRecording() {
+        commands.drain();
+        if (traceRecorder == null) {
+            return;
+        }
+        InputTrace trace = traceRecorder.finish();
+        traceRecorder = null;
+        startFileJob("gui.screendraw.status.trace_saving",
+                progress -> DrawingFiles.saveTrace(trace),
+                path -> setStatus(Text.translatable("gui.screendraw.status.trace_saved",
+                        trace.size(), path.getFileName().toString())));
+    }
+
+    private void reportHistoryErrors() {
+        DrawingHistory history = canvas.getHistory();
+        IOException spillError = history.takeSpillError();
+        if (spillError != null) {
+            setStatus(Text.translatable("gui.screendraw.status.history_spill_failed", spillError.getMessage()));
+        }
+        IOException restoreError = history.takeRestoreError();
+        if (restoreError != null) {
+            setStatus(Text.translatable("gui.screendraw.status.history_lost", restoreError.getMessage()));
+        }
+    }
+
+    private void cycleHistoryBudget() {
+        long current = canvas.getHistory().getByteBudget() / (1024L * 1024L);
+        long next = HISTORY_BUDGETS_MB[0];
+        for (long budget : HISTORY_BUDGETS_MB) {
+            if (budget > current) {
+                next = budget;
+                break;
+            }
         }
+        long bytes = next * 1024L * 1024L;
+        commands.submit(target -> {
+            target.getHistory().setByteBudget(bytes);
+            return true;
+        });
+        setStatus(Text.translatable("gui.screendraw.status.history_budget", next));
+
+        MinecraftClient minecraft = MinecraftClient.getInstance();
+        FILE_EXECUTOR.execute(() -> {
+            try {
+                DrawingFiles.saveHistoryBudget(bytes);
+            } catch (IOException exception) {
+                minecraft.execute(() -> setStatus(Text.translatable("gui.screendraw.status.error", exception.getMessage())));
+            }
+        });
+    }
+
+    private void undo() {
+        dispatch(InputEvent.action(InputEvent.Type.UNDO),
+                () -> setStatus(Text.translatable("gui.screendraw.status.undo")));
+    }
+
+    private void redo() {
+        dispatch(InputEvent.action(InputEvent.Type.REDO),
+                () -> setStatus(Text.translatable("gui.screendraw.status.redo")));
+    }
+
+    private void clear() {
+        dispatch(InputEvent.action(InputEvent.Type.CLEAR),
+                () -> setStatus(Text.translatable("gui.screendraw.status.cleared")));
+    }
+
+    private void saveDrawing() {
+        CanvasSnapshot snapshot = commands.drain();
+        List<Stroke> strokes = snapshot.getStrokes();
+        BrushSettings brush = snapshot.brush();
+        int exportWidth = width;
+        int exportHeight = height;
+        startFileJob("gui.screendraw.status.saving",
+                progress -> DrawingFiles.save(strokes, brush, exportWidth, exportHeight, progress),
+                path -> setStatus(Text.translatable("gui.screendraw.status.saved", path.getFileName().toString())));
     }
 
     private void loadDrawing() {
-        try {
-            DrawingStorage.SavedDrawing savedDrawing = DrawingStorage.load();
+        commands.drain();
+        InputTrace trace = traceRecorder != null ? traceRecorder.finish() : null;
+        startFileJob("gui.screendraw.status.loading", progress -> {
+            if (trace != null) {
+                DrawingFiles.saveTrace(trace);
+            }
+            return DrawingFiles.load(progress);
+        }, savedDrawing -> {
             if (savedDrawing == null) {
                 setStatus(Text.translatable("gui.screendraw.status.load_missing"));
                 return;
             }
 
-            canvas.replaceStrokes(savedDrawing.strokes(), true);
-            BrushSettings brush = canvas.getBrushSettings();
-            brush.setColor(savedDrawing.color());
-            brush.setLineWidth(savedDrawing.lineWidth());
-            brush.setOpacity(savedDrawing.opacity());
-            brush.setSmoothingEnabled(savedDrawing.smoothingEnabled());
-            brush.setToolMode(savedDrawing.toolMode());
-            brush.setColorSlots(savedDrawing.colorSlots());
-            canvas.getColorPicker().setSelectedColor(savedDrawing.color());
+            commands.submit(target -> {
+                traceRecorder = null;
+                target.replaceStrokes(savedDrawing.strokes(), true);
+                BrushSettings brush = target.getBrushSettings();
+                brush.setColor(savedDrawing.color());
+                brush.setLineWidth(savedDrawing.lineWidth());
+                brush.setOpacity(savedDrawing.opacity());
+                brush.setSmoothingEnabled(savedDrawing.smoothingEnabled());
+                brush.setToolMode(savedDrawing.toolMode());
+                brush.setColorSlots(savedDrawing.colorSlots());
+                return true;
+            });
+            colorPicker.setSelectedColor(savedDrawing.color());
             setStatus(Text.translatable("gui.screendraw.status.loaded", savedDrawing.path().getFileName().toString()));
-        } catch (IOException exception) {
-            setStatus(Text.translatable("gui.screendraw.status.error", exception.getMessage()));
+        });
+    }
+
+    private void exportDrawing(boolean supersample) {
+        CanvasSnapshot snapshot = commands.drain();
+        List<Stroke> strokes = snapshot.getStrokes();
+        Bounds region = new Bounds(-snapshot.offsetX() / snapshot.zoom(), -snapshot.offsetY() / snapshot.zoom(),
+                (width - snapshot.offsetX()) / snapshot.zoom(), (height - snapshot.offsetY()) / snapshot.zoom());
+        float scale = (float) MinecraftClient.getInstance().getWindow().getScaleFactor() * snapshot.zoom()
+                * (supersample ? EXPORT_SUPERSAMPLE : 1.0f);
+        scale = Math.min(scale, DrawingExport.MAX_DIMENSION / Math.max(1.0f, Math.max(region.width(), region.height())));
+        DrawingExport.Size size = DrawingExport.Size.scale(scale);
+        startFileJob("gui.screendraw.status.exporting",
+                progress -> DrawingFiles.exportPng(strokes, region, size, progress),
+                path -> setStatus(Text.translatable("gui.screendraw.status.exported", path.getFileName().toString())));
+    }
+
+    private <T> void startFileJob(String progressKey, FileTask<T> task, Consumer<T> onComplete) {
+        if (fileJob != null && !fileJob.isDone()) {
+            setStatus(Text.translatable("gui.screendraw.status.busy"));
+            return;
         }
+
+        MinecraftClient minecraft = MinecraftClient.getInstance();
+        int jobId = ++fileJobId;
+        fileJobKey = progressKey;
+        fileJobProgress = 0.0f;
+        updateFileJobStatus();
+        fileJob = FILE_EXECUTOR.submit(() -> {
+            try {
+                T result = task.run(progress -> fileJobProgress = (float) progress);
+                minecraft.execute(() -> finishFileJob(jobId, () -> onComplete.accept(result)));
+            } catch (IOException | RuntimeException exception) {
+                if (!Thread.currentThread().isInterrupted()) {
+                    minecraft.execute(() -> finishFileJob(jobId, () -> setStatus(
+                            Text.translatable("gui.screendraw.status.error", exception.getMessage()))));
+                }
+            }
+        });
     }
 
-    private void exportDrawing() {
-        try {
-            Path path = DrawingStorage.exportPng(canvas.getStrokes(), width, height);
-            setStatus(Text.translatable("gui.screendraw.status.exported", path.getFileName().toString()));
-        } catch (IOException exception) {
-            setStatus(Text.translatable("gui.screendraw.status.error", exception.getMessage()));
+    private void finishFileJob(int jobId, Runnable action) {
+        if (jobId != fileJobId) {
+            return;
+        }
+        fileJobKey = null;
+        action.run();
+    }
+
+    private void updateFileJobStatus() {
+        setStatus(Text.translatable(fileJobKey, Math.round(fileJobProgress * 100.0f)));
+    }
+
+    private void cancelFileJob() {
+        fileJobId++;
+        fileJobKey = null;
+        if (fileJob != null) {
+            fileJob.cancel(true);
+            fileJob = null;
         }
     }
 
@@ -404,12 +686,15 @@ public class DrawingScreen extends Screen {
         }
 
         if (shiftPressed) {
-            canvas.getBrushSettings().saveColorSlot(slot);
+            commands.submit(target -> {
+                target.getBrushSettings().saveColorSlot(slot);
+                return true;
+            });
             setStatus(Text.translatable("gui.screendraw.status.slot_saved", slot + 1));
         } else {
-            canvas.getBrushSettings().loadColorSlot(slot);
-            canvas.getColorPicker().setSelectedColor(canvas.getBrushSettings().getColor());
-            canvas.setToolMode(ToolMode.BRUSH);
+            dispatch(InputEvent.color(canvas.getBrushSettings().getColorSlot(slot)),
+                    () -> colorPicker.setSelectedColor(canvas.getBrushSettings().getColor()));
+            dispatch(InputEvent.tool(ToolMode.BRUSH));
             setStatus(Text.translatable("gui.screendraw.status.slot_loaded", slot + 1));
         }
     }
@@ -420,8 +705,8 @@ public class DrawingScreen extends Screen {
         boolean ctrlPressed = Screen.hasControlDown() || (modifiers & GLFW.GLFW_MOD_CONTROL) != 0;
         boolean shiftPressed = Screen.hasShiftDown() || (modifiers & GLFW.GLFW_MOD_SHIFT) != 0;
 
-        if (isAltKey(keyCode) || (altPressed && !canvas.getColorPicker().isVisible())) {
-            canvas.getColorPicker().show();
+        if (isAltKey(keyCode) || (altPressed && !colorPicker.isVisible())) {
+            colorPicker.show();
             return true;
         }
 
@@ -448,7 +733,15 @@ public class DrawingScreen extends Screen {
                     return true;
                 }
                 case GLFW.GLFW_KEY_P -> {
-                    exportDrawing();
+                    exportDrawing(shiftPressed);
+                    return true;
+                }
+                case GLFW.GLFW_KEY_0 -> {
+                    dispatch(InputEvent.action(InputEvent.Type.RESET_VIEW));
+                    return true;
+                }
+                case GLFW.GLFW_KEY_H -> {
+                    cycleHistoryBudget();
                     return true;
                 }
                 default -> {
@@ -467,27 +760,39 @@ public class DrawingScreen extends Screen {
                 yield true;
             }
             case GLFW.GLFW_KEY_S -> {
-                canvas.toggleSmoothing();
+                dispatch(InputEvent.action(InputEvent.Type.TOGGLE_SMOOTHING));
                 yield true;
             }
             case GLFW.GLFW_KEY_B -> {
-                canvas.setToolMode(ToolMode.BRUSH);
+                dispatch(InputEvent.tool(ToolMode.BRUSH));
                 yield true;
             }
             case GLFW.GLFW_KEY_E -> {
-                canvas.setToolMode(ToolMode.ERASER);
+                dispatch(InputEvent.tool(ToolMode.ERASER));
                 yield true;
             }
             case GLFW.GLFW_KEY_X -> {
-                canvas.toggleToolMode();
+                dispatch(InputEvent.action(InputEvent.Type.TOGGLE_TOOL));
                 yield true;
             }
             case GLFW.GLFW_KEY_EQUAL -> {
-                canvas.adjustBrushSize(0.5f);
+                dispatch(InputEvent.adjust(InputEvent.Type.BRUSH_SIZE, 0.5f));
                 yield true;
             }
             case GLFW.GLFW_KEY_MINUS -> {
-                canvas.adjustBrushSize(-0.5f);
+                dispatch(InputEvent.adjust(InputEvent.Type.BRUSH_SIZE, -0.5f));
+                yield true;
+            }
+            case GLFW.GLFW_KEY_F6 -> {
+                toggleRendererBackend();
+                yield true;
+            }
+            case GLFW.GLFW_KEY_F7 -> {
+                DrawingMetrics.setEnabled(!DrawingMetrics.isEnabled());
+                yield true;
+            }
+            case GLFW.GLFW_KEY_F8 -> {
+                toggleTraceRecording();
                 yield true;
             }
             default -> super.keyPressed(keyCode, scanCode, modifiers);
@@ -497,14 +802,22 @@ public class DrawingScreen extends Screen {
     @Override
     public boolean keyReleased(int keyCode, int scanCode, int modifiers) {
         if (isAltKey(keyCode)) {
-            if (canvas.getColorPicker().isVisible()) {
-                canvas.getColorPicker().hide();
+            if (colorPicker.isVisible()) {
+                colorPicker.hide();
                 return true;
             }
         }
         return super.keyReleased(keyCode, scanCode, modifiers);
     }
 
+    @Override
+    public void removed() {
+        cancelFileJob();
+        canvasLayer.close();
+        StrokeRenderer.releaseBuffers();
+        super.removed();
+    }
+
     @Override
     public boolean shouldPause() {
         return false;
@@ -532,4 +845,8 @@ public class DrawingScreen extends Screen {
             return mouseX >= x && mouseX <= x + width && mouseY >= y && mouseY <= y + height;
         }
     }
+
+    private interface FileTask<T> {
+        T run(DoubleConsumer progress) throws IOException;
+    }
 }
@@ -0,0 +1,256 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import net.minecraft.client.gl.VertexBuffer;
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class InstancedStrokeRenderer implements AutoCloseable {
+    private static final String SHADER_PATH = "/assets/screendraw/shaders/stroke_instanced";
+    private static final String[] ATTRIBUTES = {"Points01", "Points23", "Color", "Params"};
+
+    private final Map<Stroke, InstanceBuffer> buffers = new IdentityHashMap<>();
+    private final float[] matrix = new float[16];
+    private InstanceBuffer streamBuffer;
+    private ByteBuffer upload;
+    private int program;
+    private int modelViewLocation;
+    private int projectionLocation;
+    private int revision = Integer.MIN_VALUE;
+    private int rebakedVertices;
+    private boolean deferredRebakes;
+    private boolean unavailable;
+
+    public boolean isAvailable() {
+        if (program == 0 && !unavailable) {
+            try {
+                program = linkProgram(readShader(".vsh"), readShader(".fsh"));
+                modelViewLocation = GL20.glGetUniformLocation(program, "ModelViewMat");
+                projectionLocation = GL20.glGetUniformLocation(program, "ProjMat");
+            } catch (IOException | RuntimeException exception) {
+                unavailable = true;
+            }
+        }
+        return program != 0;
+    }
+
+    public void sync(List<Stroke> strokes, int canvasRevision) {
+        if (canvasRevision == revision) {
+            return;
+        }
+        revision = canvasRevision;
+
+        Set<Stroke> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(strokes);
+        Iterator<Map.Entry<Stroke, InstanceBuffer>> iterator = buffers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Stroke, InstanceBuffer> entry = iterator.next();
+            if (!live.contains(entry.getKey()) || entry.getValue().version != entry.getKey().getVersion()) {
+                entry.getValue().close();
+                iterator.remove();
+            }
+        }
+    }
+
+    public void begin(Matrix4f modelView, Matrix4f projection) {
+        GlStateManager._glUseProgram(program);
+        GL20.glUniformMatrix4fv(modelViewLocation, false, modelView.get(matrix));
+        GL20.glUniformMatrix4fv(projectionLocation, false, projection.get(matrix));
+    }
+
+    public void setModelView(Matrix4f modelView) {
+        GL20.glUniformMatrix4fv(modelViewLocation, false, modelView.get(matrix));
+    }
+
+    public void beginFrame() {
+        rebakedVertices = 0;
+        deferredRebakes = false;
+    }
+
+    public int draw(Stroke stroke, int detailLevel) {
+        InstanceBuffer buffer = buffers.get(stroke);
+        if (buffer != null && buffer.version == stroke.getVersion() && buffer.detailLevel != detailLevel
+                && rebakedVertices >= StrokeBufferCache.MAX_FRAME_REBAKE_VERTICES) {
+            deferredRebakes = true;
+            return buffer.draw();
+        }
+        if (buffer == null || buffer.version != stroke.getVersion() || buffer.detailLevel != detailLevel) {
+            if (buffer == null) {
+                buffer = new InstanceBuffer();
+                buffers.put(stroke, buffer);
+            }
+            Stroke source = StrokeSimplifier.simplify(stroke, CanvasCamera.detailTolerance(detailLevel));
+            buffer.upload(fill(source), GL15.GL_STATIC_DRAW);
+            buffer.version = stroke.getVersion();
+            buffer.detailLevel = detailLevel;
+            rebakedVertices += buffer.instances * StrokeInstances.VERTICES_PER_INSTANCE;
+        }
+        return buffer.draw();
+    }
+
+    public int getRebakedVertices() {
+        return rebakedVertices;
+    }
+
+    public boolean hasDeferredRebakes() {
+        return deferredRebakes;
+    }
+
+    public int drawTransient(Stroke stroke) {
+        if (streamBuffer == null) {
+            streamBuffer = new InstanceBuffer();
+        }
+        streamBuffer.upload(fill(stroke), GL15.GL_STREAM_DRAW);
+        return streamBuffer.draw();
+    }
+
+    public void end() {
+        VertexBuffer.unbind();
+        GlStateManager._glUseProgram(0);
+    }
+
+    public int size() {
+        return buffers.size();
+    }
+
+    public void clear() {
+        for (InstanceBuffer buffer : buffers.values()) {
+            buffer.close();
+        }
+        buffers.clear();
+        if (streamBuffer != null) {
+            streamBuffer.close();
+            streamBuffer = null;
+        }
+        upload = null;
+        revision = Integer.MIN_VALUE;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        if (program != 0) {
+            GL20.glDeleteProgram(program);
+            program = 0;
+        }
+    }
+
+    private ByteBuffer fill(Stroke stroke) {
+        int required = StrokeInstances.maxInstances(stroke) * StrokeInstances.INSTANCE_BYTES;
+        if (upload == null || upload.capacity() < required) {
+            upload = ByteBuffer.allocateDirect(Math.max(required, upload == null ? 4096 : upload.capacity() * 2))
+                    .order(ByteOrder.nativeOrder());
+        }
+        upload.clear();
+        StrokeInstances.write(stroke, upload);
+        upload.flip();
+        return upload;
+    }
+
+    private static String readShader(String extension) throws IOException {
+        try (InputStream in = InstancedStrokeRenderer.class.getResourceAsStream(SHADER_PATH + extension)) {
+            if (in == null) {
+                throw new IOException("Missing shader " + SHADER_PATH + extension);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int linkProgram(String vertexSource, String fragmentSource) {
+        int vertex = compileShader(GL20.GL_VERTEX_SHADER, vertexSource);
+        int fragment = compileShader(GL20.GL_FRAGMENT_SHADER, fragmentSource);
+        int program = GL20.glCreateProgram();
+        GL20.glAttachShader(program, vertex);
+        GL20.glAttachShader(program, fragment);
+        for (int i = 0; i < ATTRIBUTES.length; i++) {
+            GL20.glBindAttribLocation(program, i, ATTRIBUTES[i]);
+        }
+        GL20.glLinkProgram(program);
+        GL20.glDeleteShader(vertex);
+        GL20.glDeleteShader(fragment);
+        if (GL20.glGetProgrami(program, GL20.GL_LINK_STATUS) == GL11.GL_FALSE) {
+            String log = GL20.glGetProgramInfoLog(program);
+            GL20.glDeleteProgram(program);
+            throw new IllegalStateException("Stroke shader failed to link: " + log);
+        }
+        return program;
+    }
+
+    private static int compileShader(int type, String source) {
+        int shader = GL20.glCreateShader(type);
+        GL20.glShaderSource(shader, source);
+        GL20.glCompileShader(shader);
+        if (GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
+            String log = GL20.glGetShaderInfoLog(shader);
+            GL20.glDeleteShader(shader);
+            throw new IllegalStateException("Stroke shader failed to compile: " + log);
+        }
+        return shader;
+    }
+
+    private static final class InstanceBuffer {
+        private final int vertexArray;
+        private final int buffer;
+        private int instances;
+        private int version;
+        private int detailLevel;
+
+        private InstanceBuffer() {
+            vertexArray = GL30.glGenVertexArrays();
+            buffer = GL15.glGenBuffers();
+            GL30.glBindVertexArray(vertexArray);
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, buffer);
+            int stride = StrokeInstances.INSTANCE_BYTES;
+            attribute(0, 4, GL11.GL_FLOAT, false, stride, 0L);
+            attribute(1, 4, GL11.GL_FLOAT, false, stride, 16L);
+            attribute(2, 4, GL11.GL_UNSIGNED_BYTE, true, stride, 32L);
+            attribute(3, 2, GL11.GL_FLOAT, false, stride, 36L);
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+            VertexBuffer.unbind();
+        }
+
+        private void upload(ByteBuffer data, int usage) {
+            instances = data.remaining() / StrokeInstances.INSTANCE_BYTES;
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, buffer);
+            GL15.glBufferData(GL15.GL_ARRAY_BUFFER, data, usage);
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        }
+
+        private int draw() {
+            if (instances == 0) {
+                return 0;
+            }
+            GL30.glBindVertexArray(vertexArray);
+            GL31.glDrawArraysInstanced(GL11.GL_TRIANGLES, 0, StrokeInstances.VERTICES_PER_INSTANCE, instances);
+            return instances * StrokeInstances.VERTICES_PER_INSTANCE;
+        }
+
+        private void close() {
+            GL15.glDeleteBuffers(buffer);
+            GL30.glDeleteVertexArrays(vertexArray);
+        }
+
+        private static void attribute(int index, int size, int type, boolean normalized, int stride, long offset) {
+            GL20.glEnableVertexAttribArray(index);
+            GL20.glVertexAttribPointer(index, size, type, normalized, stride, offset);
+            GL33.glVertexAttribDivisor(index, 1);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package me.IcyCrow.customSound.screendraw.drawing;
+
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BuiltBuffer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class StrokeBufferCache {
+    public static final int MAX_FRAME_REBAKE_VERTICES = StrokeRenderer.MAX_FRAME_VERTICES / 4;
+
+    private final Map<Stroke, BakedStroke> buffers = new IdentityHashMap<>();
+    private int revision = Integer.MIN_VALUE;
+    private int rebakedVertices;
+    private boolean deferredRebakes;
+
+    public void sync(List<Stroke> strokes, int canvasRevision) {
+        if (canvasRevision == revision) {
+            return;
+        }
+        revision = canvasRevision;
+
+        Set<Stroke> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(strokes);
+
+        Iterator<Map.Entry<Stroke, BakedStroke>> iterator = buffers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Stroke, BakedStroke> entry = iterator.next();
+            Stroke stroke = entry.getKey();
+            BakedStroke baked = entry.getValue();
+            if (!live.contains(stroke) || baked.version() != stroke.getVersion()) {
+                baked.close();
+                iterator.remove();
+            }
+        }
+    }
+
+    public void beginFrame() {
+        rebakedVertices = 0;
+        deferredRebakes = false;
+    }
+
+    public VertexBuffer get(Stroke stroke) {
+        return get(stroke, 0).buffer();
+    }
+
+    BakedStroke get(Stroke stroke, int detailLevel) {
+        BakedStroke baked = buffers.get(stroke);
+        if (baked != null && baked.version() == stroke.getVersion() && baked.detailLevel() != detailLevel
+                && rebakedVertices >= MAX_FRAME_REBAKE_VERTICES) {
+            deferredRebakes = true;
+            return baked;
+        }
+        if (baked == null || baked.version() != stroke.getVersion() || baked.detailLevel() != detailLevel) {
+            if (baked != null) {
+                baked.close();
+            }
+            baked = bake(stroke, detailLevel);
+            buffers.put(stroke, baked);
+            rebakedVertices += baked.vertices();
+        }
+        return baked;
+    }
+
+    public int getRebakedVertices() {
+        return rebakedVertices;
+    }
+
+    public boolean hasDeferredRebakes() {
+        return deferredRebakes;
+    }
+
+    public int size() {
+        return buffers.size();
+    }
+
+    public void clear() {
+        for (BakedStroke baked : buffers.values()) {
+            baked.close();
+        }
+        buffers.clear();
+        revision = Integer.MIN_VALUE;
+    }
+
+    private static BakedStroke bake(Stroke stroke, int detailLevel) {
+        Stroke source = StrokeSimplifier.simplify(stroke, CanvasCamera.detailTolerance(detailLevel));
+        BufferBuilder builder = Tessellator.getInstance().begin(VertexFormat.DrawMode.TRIANGLES, VertexFormats.POSITION_COLOR);
+        int vertices = StrokeRenderer.appendStroke(builder, StrokeRenderer.IDENTITY, source);
+        BuiltBuffer built = builder.endNullable();
+        if (built == null) {
+            return new BakedStroke(null, stroke.getVersion(), detailLevel, 0);
+        }
+
+        VertexBuffer buffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+        buffer.bind();
+        buffer.upload(built);
+        VertexBuffer.unbind();
+        return new BakedStroke(buffer, stroke.getVersion(), detailLevel, vertices);
+    }
+
+    record BakedStroke(VertexBuffer buffer, int version, int detailLevel, int vertices) {
+        void close() {
+            if (buffer != null) {
+                buffer.close();
+            }
+        }
+    }
+}
@@ -1,14 +1,109 @@
 package me.IcyCrow.customSound.screendraw.drawing;
 
+import com.mojang.blaze3d.platform.GlConst;
 import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.ShaderProgram;
 import net.minecraft.client.gl.ShaderProgramKeys;
+import net.minecraft.client.gl.VertexBuffer;
 import net.minecraft.client.render.*;
+import net.minecraft.client.util.Window;
 import net.minecraft.client.util.math.MatrixStack;
 import org.joml.Matrix4f;
 
 import java.util.List;
 
-public class StrokeRenderer {
+public class StrokeRenderer implements CanvasRenderer<MatrixStack> {
+    public static final int MAX_FRAME_VERTICES = 1_500_000;
+    public static final StrokeRenderer INSTANCE = new StrokeRenderer();
+    static final Matrix4f IDENTITY = new Matrix4f();
+    private static final int DEPTH_SLICE = 4096;
+    private static final float DEPTH_STEP = 0.125f;
+    private static final StrokeBufferCache BUFFER_CACHE = new StrokeBufferCache();
+    private static final InstancedStrokeRenderer INSTANCED_RENDERER = new InstancedStrokeRenderer();
+    private static Backend backend = Backend.TESSELLATOR;
+    private static boolean coverageDepth;
+    private static int fallbackIndex;
+
+    public enum Backend {
+        TESSELLATOR,
+        INSTANCED
+    }
+
+    private StrokeRenderer() {
+    }
+
+    public static Backend getBackend() {
+        return backend;
+    }
+
+    public static boolean setBackend(Backend newBackend) {
+        if (newBackend == Backend.INSTANCED && !INSTANCED_RENDERER.isAvailable()) {
+            return false;
+        }
+        backend = newBackend;
+        return true;
+    }
+
+    static void setCoverageDepth(boolean enabled) {
+        coverageDepth = enabled;
+    }
+
+    public static void releaseBuffers() {
+        BUFFER_CACHE.clear();
+        INSTANCED_RENDERER.clear();
+    }
+
+    public static void beginFrame() {
+        BUFFER_CACHE.beginFrame();
+        INSTANCED_RENDERER.beginFrame();
+    }
+
+    public static boolean hasDeferredRebakes() {
+        return BUFFER_CACHE.hasDeferredRebakes() || INSTANCED_RENDERER.hasDeferredRebakes();
+    }
+
+    public static void renderCanvas(DrawingCanvas canvas, MatrixStack matrices) {
+        List<Stroke> strokes = canvas.getStrokes();
+        Stroke currentStroke = canvas.getCurrentStroke();
+        if (strokes.isEmpty() && (currentStroke == null || currentStroke.isEmpty())) {
+            BUFFER_CACHE.sync(strokes, canvas.getRevision());
+            fallbackIndex = 0;
+            return;
+        }
+
+        beginFrame();
+        CanvasCamera camera = canvas.getCamera();
+        Bounds visible = camera.toWorld(viewport());
+        setupRenderState();
+        pushCamera(matrices, camera);
+        if (fallbackIndex >= strokes.size()) {
+            fallbackIndex = 0;
+        }
+        int next = INSTANCE.renderStrokes(canvas, visible, fallbackIndex, MAX_FRAME_VERTICES, matrices);
+        fallbackIndex = next < strokes.size() ? next : 0;
+        INSTANCE.renderCurrentStroke(currentStroke, visible, matrices);
+        matrices.pop();
+        cleanupRenderState();
+    }
+
+    @Override
+    public void renderCurrentStroke(Stroke currentStroke, Bounds visible, MatrixStack matrices) {
+        if (currentStroke == null || currentStroke.isEmpty()) {
+            return;
+        }
+        if (backend == Backend.INSTANCED) {
+            INSTANCED_RENDERER.begin(modelView(matrices), RenderSystem.getProjectionMatrix());
+            DrawingMetrics.add(DrawingMetrics.Counter.VERTICES, INSTANCED_RENDERER.drawTransient(currentStroke));
+            INSTANCED_RENDERER.end();
+            return;
+        }
+        RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR);
+        BufferBuilder builder = Tessellator.getInstance().begin(VertexFormat.DrawMode.TRIANGLES, VertexFormats.POSITION_COLOR);
+        int vertices = appendStroke(builder, matrices.peek().getPositionMatrix(), currentStroke, visible);
+        DrawingMetrics.add(DrawingMetrics.Counter.VERTICES, vertices);
+        draw(builder);
+    }
 
     public static void renderStrokes(List<Stroke> strokes, Stroke currentStroke, MatrixStack matrices) {
         if (strokes.isEmpty() && (currentStroke == null || currentStroke.isEmpty())) {
@@ -18,44 +113,141 @@ public class StrokeRenderer {
         setupRenderState();
 
         Tessellator tessellator = Tessellator.getInstance();
-        BufferBuilder builder = tessellator.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
+        BufferBuilder builder = tessellator.begin(VertexFormat.DrawMode.TRIANGLES, VertexFormats.POSITION_COLOR);
         Matrix4f matrix = matrices.peek().getPositionMatrix();
+        Bounds visible = viewport();
 
+        int vertices = 0;
         for (Stroke stroke : strokes) {
             if (!stroke.isEmpty()) {
-                renderStroke(builder, matrix, stroke.getPointsView());
+                vertices += appendStroke(builder, matrix, stroke, visible);
             }
         }
 
         if (currentStroke != null && !currentStroke.isEmpty()) {
-            renderStroke(builder, matrix, currentStroke.getPointsView());
+            vertices += appendStroke(builder, matrix, currentStroke, visible);
         }
+        DrawingMetrics.add(DrawingMetrics.Counter.VERTICES, vertices);
 
-        BufferRenderer.drawWithGlobalProgram(builder.end());
+        draw(builder);
         cleanupRenderState();
     }
 
-    private static void renderStroke(BufferBuilder builder, Matrix4f matrix, List<DrawPoint> points) {
-        for (DrawPoint point : points) {
-            float x = point.x();
-            float y = point.y();
-            int color = point.color();
-            float pointSize = point.size();
+    @Override
+    public int renderStrokes(DrawingCanvas canvas, Bounds clip, int from, int vertexBudget, MatrixStack matrices) {
+        List<Stroke> strokes = canvas.getStrokes();
+        BUFFER_CACHE.sync(strokes, canvas.getRevision());
+        int detailLevel = canvas.getCamera().getDetailLevel();
+        if (backend == Backend.INSTANCED) {
+            return renderInstancedStrokes(canvas, clip, from, vertexBudget, detailLevel, matrices);
+        }
+        Matrix4f modelView = modelView(matrices);
+        Matrix4f strokeView = new Matrix4f();
+        Matrix4f projection = RenderSystem.getProjectionMatrix();
+        ShaderProgram shader = RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR);
 
-            int alpha = (color >>> 24) & 0xFF;
-            if (alpha == 0) {
+        int drawn = 0;
+        int rebaked = BUFFER_CACHE.getRebakedVertices();
+        int slice = from / DEPTH_SLICE;
+        for (int i = from; i < strokes.size(); i++) {
+            Stroke stroke = strokes.get(i);
+            if (stroke.isEmpty() || (clip != null && !stroke.intersects(clip))) {
+                continue;
+            }
+            if (drawn + BUFFER_CACHE.getRebakedVertices() - rebaked >= vertexBudget) {
+                VertexBuffer.unbind();
+                DrawingMetrics.add(DrawingMetrics.Counter.VERTICES, drawn);
+                return i;
+            }
+            StrokeBufferCache.BakedStroke baked = BUFFER_CACHE.get(stroke, detailLevel);
+            if (baked.buffer() == null) {
                 continue;
             }
-            int red = (color >>> 16) & 0xFF;
-            int green = (color >>> 8) & 0xFF;
-            int blue = color & 0xFF;
+            baked.buffer().bind();
+            if (coverageDepth) {
+                slice = depthSlice(i, slice);
+                baked.buffer().draw(coverageView(modelView, i, strokeView), projection, shader);
+            } else {
+                baked.buffer().draw(modelView, projection, shader);
+            }
+            drawn += baked.vertices();
+        }
+        VertexBuffer.unbind();
+        DrawingMetrics.add(DrawingMetrics.Counter.VERTICES, drawn);
+        return strokes.size();
+    }
+
+    private static int renderInstancedStrokes(DrawingCanvas canvas, Bounds clip, int from, int vertexBudget,
+                                              int detailLevel, MatrixStack matrices) {
+        List<Stroke> strokes = canvas.getStrokes();
+        INSTANCED_RENDERER.sync(strokes, canvas.getRevision());
+        Matrix4f modelView = modelView(matrices);
+        Matrix4f strokeView = new Matrix4f();
+        INSTANCED_RENDERER.begin(modelView, RenderSystem.getProjectionMatrix());
 
-            float halfSize = pointSize / 2.0f;
+        int drawn = 0;
+        int rebaked = INSTANCED_RENDERER.getRebakedVertices();
+        int slice = from / DEPTH_SLICE;
+        for (int i = from; i < strokes.size(); i++) {
+            Stroke stroke = strokes.get(i);
+            if (stroke.isEmpty() || (clip != null && !stroke.intersects(clip))) {
+                continue;
+            }
+            if (drawn + INSTANCED_RENDERER.getRebakedVertices() - rebaked >= vertexBudget) {
+                INSTANCED_RENDERER.end();
+                DrawingMetrics.add(DrawingMetrics.Counter.VERTICES, drawn);
+                return i;
+            }
+            if (coverageDepth) {
+                slice = depthSlice(i, slice);
+                INSTANCED_RENDERER.setModelView(coverageView(modelView, i, strokeView));
+            }
+            drawn += INSTANCED_RENDERER.draw(stroke, detailLevel);
+        }
+        INSTANCED_RENDERER.end();
+        DrawingMetrics.add(DrawingMetrics.Counter.VERTICES, drawn);
+        return strokes.size();
+    }
+
+    private static Matrix4f coverageView(Matrix4f modelView, int index, Matrix4f target) {
+        return modelView.translate(0.0f, 0.0f, (index % DEPTH_SLICE) * DEPTH_STEP, target);
+    }
+
+    private static int depthSlice(int index, int slice) {
+        int next = index / DEPTH_SLICE;
+        if (next != slice) {
+            RenderSystem.clear(GlConst.GL_DEPTH_BUFFER_BIT);
+        }
+        return next;
+    }
+
+    private static Matrix4f modelView(MatrixStack matrices) {
+        return new Matrix4f(RenderSystem.getModelViewMatrix()).mul(matrices.peek().getPositionMatrix());
+    }
+
+    static void pushCamera(MatrixStack matrices, CanvasCamera camera) {
+        matrices.push();
+        matrices.translate(camera.getOffsetX(), camera.getOffsetY(), 0.0f);
+        matrices.scale(camera.getZoom(), camera.getZoom(), 1.0f);
+    }
+
+    static int appendStroke(VertexConsumer builder, Matrix4f matrix, Stroke stroke) {
+        return appendStroke(builder, matrix, stroke, null);
+    }
+
+    static int appendStroke(VertexConsumer builder, Matrix4f matrix, Stroke stroke, Bounds visible) {
+        return StrokeGeometry.tessellate(stroke, visible, (x, y, color) -> builder.vertex(matrix, x, y, 0).color(color));
+    }
+
+    static Bounds viewport() {
+        Window window = MinecraftClient.getInstance().getWindow();
+        return new Bounds(0.0f, 0.0f, window.getScaledWidth(), window.getScaledHeight());
+    }
 
-            builder.vertex(matrix, x - halfSize, y + halfSize, 0).color(red, green, blue, alpha);
-            builder.vertex(matrix, x + halfSize, y + halfSize, 0).color(red, green, blue, alpha);
-            builder.vertex(matrix, x + halfSize, y - halfSize, 0).color(red, green, blue, alpha);
-            builder.vertex(matrix, x - halfSize, y - halfSize, 0).color(red, green, blue, alpha);
+    private static void draw(BufferBuilder builder) {
+        BuiltBuffer built = builder.endNullable();
+        if (built != null) {
+            BufferRenderer.drawWithGlobalProgram(built);
         }
     }
 
@@ -63,9 +255,11 @@ public class StrokeRenderer {
         RenderSystem.setShader(ShaderProgramKeys.POSITION_COLOR);
         RenderSystem.enableBlend();
         RenderSystem.defaultBlendFunc();
+        RenderSystem.disableCull();
     }
 
     private static void cleanupRenderState() {
+        RenderSystem.enableCull();
         RenderSystem.disableBlend();
     }
 }